@@ -0,0 +1,82 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * benchmarks a tick of an arena full of snakes on a 2000 x 2000 board, on one
+ * thread and on one per core. The snakes turn every few ticks, and the arena is
+ * refilled before every iteration, since snakes die as it is played.
+ * 
+ * @author jgcaf
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArenaBenchmark {
+	static private final int size = 2000;
+	static private final Direction[] directions = Direction.values();
+
+	@Param({ "1000", "10000" })
+	public int snakes;
+
+	@Param({ "1", "0" })
+	public int threads;
+
+	private Arena arena;
+	private ArenaPolicy policy = (a, k) -> (a.getTick() + k) % 16 == 0 ? directions[(int) ((a.getTick() + k) % 4)]
+			: null;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		arena = new Arena(size, size, snakes, 1L, parallelism);
+		arena.spawn(snakes);
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() {
+		arena.shutdown();
+	}
+
+	/**
+	 * one simultaneous move of every snake.
+	 */
+	@Benchmark
+	public int step() {
+		arena.step(policy);
+		return arena.getAliveCount();
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.ArrayList;
+
+/**
+ * shared setup for the benchmarks.
+ * 
+ * @author jgcaf
+ *
+ */
+class BenchmarkBoards {
+
+	/**
+	 * places a snake on a new game and grows it along a {@link HamiltonianCycle}.
+	 * Food is only placed by hand afterwards.
+	 * 
+	 * @param engine - a new game with an even number of columns
+	 * @param length - the length to grow the snake to
+	 */
+	static void growSnake(GameEngine engine, int length) {
+		engine.setLoadedCoordinates(new ArrayList<String>());
+		HamiltonianCycle.startSnake(engine, length);
+	}
+
+	/**
+	 * @param engine - the running game
+	 * @return the direction along the route from the snake's head.
+	 */
+	static Direction route(GameEngine engine) {
+		return HamiltonianCycle.next(engine.getHeadI(), engine.getHeadJ(), engine.getCols(), engine.getRows());
+	}
+}
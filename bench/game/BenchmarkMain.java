@@ -0,0 +1,54 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs the JMH benchmarks with the GC profiler, which adds the allocation rate
+ * (gc.alloc.rate.norm, in bytes per operation) to every result.
+ * 
+ * The benchmarks live in the bench folder, in the game package so they can
+ * reach the package-private parts of the game. To build them, compile src and
+ * bench together with jmh-core and jmh-generator-annprocess on the class path
+ * (the annotation processor generates the benchmark harness), plus the JavaFX
+ * modules. Run from the project folder, so the sample logs in GameFiles are
+ * found: java game.BenchmarkMain [regex of benchmarks to include]
+ * 
+ * @author jgcaf
+ *
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(args.length > 0 ? args[0] : BenchmarkMain.class.getPackage().getName() + ".*Benchmark")
+				.addProfiler(GCProfiler.class)
+				.forks(1)
+				.build();
+		new Runner(options).run();
+	}
+}
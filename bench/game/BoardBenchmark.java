@@ -0,0 +1,157 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.paint.Color;
+
+/**
+ * benchmarks looking up board spaces and drawing the board into a pixel
+ * buffer. Drawing goes to a pixel writer that only counts its calls, so the
+ * cost of the renderer's own loops is measured without a JavaFX canvas.
+ * 
+ * @author jgcaf
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardBenchmark {
+	static private final int lookups = 1024;
+
+	@Param({ "20", "100", "1000" })
+	public int size;
+
+	private Board board;
+	private GameEngine engine;
+	private int[] is = new int[lookups];
+	private int[] js = new int[lookups];
+	private PixelRenderer pixels;
+	private CountingWriter writer = new CountingWriter();
+	private int boardArgb;
+	private int snakeArgb;
+	private int foodArgb;
+
+	@Setup
+	public void setUp() {
+		board = new Board(size, size, 800, 800);
+		engine = board.getEngine();
+		BenchmarkBoards.growSnake(engine, size);
+		pixels = new PixelRenderer(engine, 800, 800, writer);
+		boardArgb = PixelRenderer.argb(Color.web("#000000"));
+		snakeArgb = PixelRenderer.argb(Color.web("#00ff00"));
+		foodArgb = PixelRenderer.argb(Color.web("#ff0000"));
+		// a third of the lookups are off the board and have to wrap around:
+		SplittableRandom random = new SplittableRandom(1);
+		for (int k = 0; k < lookups; k++) {
+			is[k] = random.nextInt(-size / 2, size + size / 2);
+			js[k] = random.nextInt(-size / 2, size + size / 2);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(lookups)
+	public void getSpace(Blackhole bh) {
+		for (int k = 0; k < lookups; k++) {
+			bh.consume(board.getSpace(is[k], js[k]));
+		}
+	}
+
+	@Benchmark
+	public int pixelsAll() {
+		engine.getDirtyCells().markAll();
+		pixels.update(boardArgb, snakeArgb, foodArgb);
+		return writer.count;
+	}
+
+	@Benchmark
+	public int pixelsAfterTick() {
+		engine.step(BenchmarkBoards.route(engine));
+		pixels.update(boardArgb, snakeArgb, foodArgb);
+		return writer.count;
+	}
+
+	/**
+	 * counts the pixel rectangles it is asked to copy, instead of writing to an
+	 * image.
+	 */
+	static class CountingWriter implements PixelWriter {
+		int count;
+
+		@Override
+		public PixelFormat<?> getPixelFormat() {
+			return PixelFormat.getIntArgbInstance();
+		}
+
+		@Override
+		public void setArgb(int x, int y, int argb) {
+			count++;
+		}
+
+		@Override
+		public void setColor(int x, int y, Color c) {
+			count++;
+		}
+
+		@Override
+		public <T extends Buffer> void setPixels(int x, int y, int w, int h, PixelFormat<T> pixelformat, T buffer,
+				int scanlineStride) {
+			count++;
+		}
+
+		@Override
+		public void setPixels(int x, int y, int w, int h, PixelFormat<ByteBuffer> pixelformat, byte[] buffer,
+				int offset, int scanlineStride) {
+			count++;
+		}
+
+		@Override
+		public void setPixels(int x, int y, int w, int h, PixelFormat<IntBuffer> pixelformat, int[] buffer,
+				int offset, int scanlineStride) {
+			count++;
+		}
+
+		@Override
+		public void setPixels(int dstx, int dsty, int w, int h, PixelReader reader, int srcx, int srcy) {
+			count++;
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * benchmarks loading the sample logs in GameFiles, both all at once through the
+ * FileLogger and one event at a time as a replay reads them, from the text log
+ * and from its binary replay. Must be run from the project folder.
+ * 
+ * @author jgcaf
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileLoggerBenchmark {
+
+	@Param({ "SmallBoard_recorded.txt", "Bucky_recorded.txt", "large_board_recorded.txt" })
+	public String log;
+
+	private String textPath;
+	private String binaryPath;
+	private FileLogger logger;
+
+	@Setup
+	public void setUp() throws IOException {
+		textPath = FileLogger.gameSaveDir + log;
+		File binary = File.createTempFile("replay", ReplayConverter.binaryExtension);
+		binaryPath = binary.getPath();
+		ReplayConverter.textToBinary(textPath, binaryPath);
+		logger = new FileLogger();
+	}
+
+	@TearDown
+	public void tearDown() {
+		new File(binaryPath).delete();
+	}
+
+	/**
+	 * reads the settings and then the whole recorded run into lists.
+	 */
+	@Benchmark
+	public int loadLogFile() {
+		logger.loadLogFile(textPath);
+		return logger.getLoadedDirections().size() + logger.getLoadedFoodCoordinates().size();
+	}
+
+	@Benchmark
+	public int streamText() throws IOException {
+		return stream(textPath);
+	}
+
+	@Benchmark
+	public int streamBinary() throws IOException {
+		return stream(binaryPath);
+	}
+
+	/**
+	 * reads every event of a replay without keeping them.
+	 * 
+	 * @param path - the replay file
+	 * @return the number of events.
+	 * @throws IOException - if the file can not be read
+	 */
+	private int stream(String path) throws IOException {
+		logger.loadLogFile(path);
+		int events = 0;
+		try (ReplaySource replay = logger.openReplay()) {
+			while (replay.next() != ReplaySource.end) {
+				events++;
+			}
+		}
+		return events;
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * benchmarks placing random food as the snake covers more of a 200 x 200
+ * board. The food is taken off again after each placement, so every call sees
+ * the same board.
+ * 
+ * @author jgcaf
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FoodBenchmark {
+	static private final int size = 200;
+
+	/**
+	 * the part of the board covered by the snake.
+	 */
+	@Param({ "0.01", "0.5", "0.9", "0.99" })
+	public double occupancy;
+
+	private GameEngine engine;
+	private Food food;
+
+	@Setup
+	public void setUp() {
+		Board board = new Board(size, size, 800, 800);
+		engine = board.getEngine();
+		BenchmarkBoards.growSnake(engine, (int) (occupancy * size * size));
+		engine.setReplayMode(false);
+		food = new Food(board);
+	}
+
+	@Benchmark
+	public long generateFood() {
+		engine.clearFood();
+		food.generateFood();
+		return food.getLocation();
+	}
+}
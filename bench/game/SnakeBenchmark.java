@@ -0,0 +1,87 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javafx.scene.input.KeyCode;
+
+/**
+ * benchmarks moving the snake at different body lengths, on a 1000 x 1000
+ * board. The snake follows a {@link HamiltonianCycle}, so it never dies or
+ * grows while it is measured.
+ * 
+ * @author jgcaf
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SnakeBenchmark {
+	static private final int size = 1000;
+
+	@Param({ "1", "1000", "100000", "999999" })
+	public int length;
+
+	private GameEngine engine;
+	private Snake snake;
+	private KeyCode[] keys = new KeyCode[Direction.values().length];
+
+	@Setup
+	public void setUp() {
+		Board board = new Board(size, size, 800, 800);
+		engine = board.getEngine();
+		engine.setLoadedCoordinates(new ArrayList<String>());
+		snake = HamiltonianCycle.startSnake(board, null, length, true);
+		for (Direction d : Direction.values()) {
+			keys[d.ordinal()] = KeyCode.valueOf(d.name());
+		}
+	}
+
+	/**
+	 * a tick with a key press, through the snake.
+	 */
+	@Benchmark
+	public int update() {
+		snake.update(keys[BenchmarkBoards.route(engine).ordinal()]);
+		return engine.getHeadI();
+	}
+
+	/**
+	 * the same tick on the engine, without translating a key.
+	 */
+	@Benchmark
+	public int step() {
+		engine.step(BenchmarkBoards.route(engine));
+		return engine.getHeadI();
+	}
+}
@@ -0,0 +1,608 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * many snakes on one headless board, for bot tournaments. Every space records
+ * the id of the snake covering it, and all snakes move at the same time: a
+ * snake dies if it runs into a body, if two heads move onto the same space, or
+ * if two heads swap places. A snake may follow a tail that is moving away,
+ * including its own.
+ * 
+ * The snakes are kept as one array per property instead of one object each,
+ * and their bodies are not stored at all - every body space records the
+ * direction the snake left it in, so the tail follows the head across the
+ * board. A tick is split into phases run in parallel on a fork-join pool: the
+ * moves are chosen per snake, collisions are found per column strip of the
+ * board, since every head moving onto a space is handled by the strip holding
+ * it, and the snakes are then moved per snake. Food is placed afterwards from
+ * one seeded generator, so a tournament plays the same whatever the number of
+ * threads.
+ * 
+ * @author jgcaf
+ *
+ */
+public class Arena {
+	// snakes are only split between threads in groups of at least this many:
+	static private final int grain = 1024;
+	// draws at a random space before giving up on placing a food until the next
+	// tick:
+	static private final int foodAttempts = 64;
+	static private final Direction[] directions = Direction.values();
+	static private final int choose = 0;
+	static private final int resolve = 1;
+	static private final int advance = 2;
+	static private final int moveHeads = 3;
+
+	private final int cols;
+	private final int rows;
+	// the snake covering each space plus one, 0 for empty and -1 for food:
+	private final int[] owners;
+	// the direction each body space was left in, as an ordinal:
+	private final byte[] exits;
+	// the number of heads moving onto each space this tick, 0 between ticks:
+	private final int[] claims;
+	// the column strip each column of the board belongs to:
+	private final int[] regionOfColumn;
+	private final int regions;
+	private final ForkJoinPool pool;
+	private final long seed;
+	private final SplittableRandom r;
+	private final int foodWanted;
+	private int foodCount = 0;
+	private long tick = 0;
+
+	// one entry per snake id:
+	private int count = 0;
+	private int aliveCount = 0;
+	private int[] heads = new int[16];
+	private int[] tails = new int[16];
+	private int[] lengths = new int[16];
+	private int[] scores = new int[16];
+	private byte[] direction = new byte[16];
+	// the opposite of the last move, which the snake cannot turn to:
+	private byte[] previousDirection = new byte[16];
+	private boolean[] alive = new boolean[16];
+	// the space each snake moves onto this tick, and what happens to it:
+	private int[] targets = new int[16];
+	private boolean[] eats = new boolean[16];
+	private boolean[] dies = new boolean[16];
+
+	// the moving snakes grouped by the strip their target is in:
+	private final int[] bucketStarts;
+	private int[] bucketed = new int[16];
+
+	/**
+	 * creates an empty arena with one worker thread per core, and places its
+	 * food.
+	 * 
+	 * @param cols      - total number of columns
+	 * @param rows      - total number of rows
+	 * @param foodCount - the number of food kept on the board
+	 * @param seed      - the seed used for placing snakes and food
+	 */
+	public Arena(int cols, int rows, int foodCount, long seed) {
+		this(cols, rows, foodCount, seed, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * creates an empty arena and places its food.
+	 * 
+	 * @param cols        - total number of columns
+	 * @param rows        - total number of rows
+	 * @param foodCount   - the number of food kept on the board
+	 * @param seed        - the seed used for placing snakes and food
+	 * @param parallelism - the number of worker threads
+	 */
+	public Arena(int cols, int rows, int foodCount, long seed, int parallelism) {
+		if ((long) cols * rows > GameEngine.packedLimit) {
+			throw new IllegalArgumentException("board is too large for an arena: " + cols + "x" + rows);
+		}
+		this.cols = cols;
+		this.rows = rows;
+		this.owners = new int[cols * rows];
+		this.exits = new byte[cols * rows];
+		this.claims = new int[cols * rows];
+		// a few strips per thread, so a crowded strip does not hold up the tick:
+		this.regions = Math.min(cols, parallelism * 4);
+		this.regionOfColumn = new int[cols];
+		for (int i = 0; i < cols; i++) {
+			regionOfColumn[i] = (int) ((long) i * regions / cols);
+		}
+		this.bucketStarts = new int[regions + 1];
+		this.pool = new ForkJoinPool(parallelism);
+		this.seed = seed;
+		this.r = new SplittableRandom(seed);
+		this.foodWanted = foodCount;
+		placeFood();
+	}
+
+	/**
+	 * puts a new snake of length one on the board.
+	 * 
+	 * @param i         - column of the snake's head
+	 * @param j         - row of the snake's head
+	 * @param direction - the direction it starts moving in
+	 * @return the id of the snake.
+	 */
+	public int addSnake(int i, int j, Direction direction) {
+		int space = index(wrapI(i), wrapJ(j));
+		if (owners[space] != 0) {
+			throw new IllegalArgumentException("space is taken: " + i + "," + j);
+		}
+		if (count == heads.length) {
+			grow(count * 2);
+		}
+		int id = count++;
+		heads[id] = space;
+		tails[id] = space;
+		lengths[id] = 1;
+		scores[id] = 0;
+		this.direction[id] = (byte) direction.ordinal();
+		previousDirection[id] = (byte) direction.opposite().ordinal();
+		alive[id] = true;
+		owners[space] = id + 1;
+		aliveCount++;
+		return id;
+	}
+
+	/**
+	 * puts new snakes on random empty spaces, moving in random directions.
+	 * 
+	 * @param n - the number of snakes
+	 * @return the id of the first new snake, the others follow it.
+	 */
+	public int spawn(int n) {
+		int first = count;
+		for (int k = 0; k < n; k++) {
+			int space;
+			do {
+				space = r.nextInt(owners.length);
+			} while (owners[space] != 0);
+			addSnake(space / rows, space % rows, directions[r.nextInt(directions.length)]);
+		}
+		return first;
+	}
+
+	/**
+	 * resizes the per snake arrays.
+	 * 
+	 * @param capacity - the number of snakes they can hold
+	 */
+	private void grow(int capacity) {
+		heads = Arrays.copyOf(heads, capacity);
+		tails = Arrays.copyOf(tails, capacity);
+		lengths = Arrays.copyOf(lengths, capacity);
+		scores = Arrays.copyOf(scores, capacity);
+		direction = Arrays.copyOf(direction, capacity);
+		previousDirection = Arrays.copyOf(previousDirection, capacity);
+		alive = Arrays.copyOf(alive, capacity);
+		targets = Arrays.copyOf(targets, capacity);
+		eats = Arrays.copyOf(eats, capacity);
+		dies = Arrays.copyOf(dies, capacity);
+		bucketed = Arrays.copyOf(bucketed, capacity);
+	}
+
+	/**
+	 * generates food on a specific space, if it is empty.
+	 * 
+	 * @param i - the column of the space
+	 * @param j - the row of the space
+	 * @return false if the space is not empty.
+	 */
+	public boolean generateOnSpace(int i, int j) {
+		int space = index(wrapI(i), wrapJ(j));
+		if (owners[space] != 0) {
+			return false;
+		}
+		owners[space] = -1;
+		foodCount++;
+		return true;
+	}
+
+	/**
+	 * tops the food on the board back up. A food that cannot find an empty space
+	 * in a few draws is placed on a later tick instead.
+	 */
+	private void placeFood() {
+		while (foodCount < foodWanted) {
+			boolean placed = false;
+			for (int k = 0; k < foodAttempts && !placed; k++) {
+				int space = r.nextInt(owners.length);
+				placed = generateOnSpace(space / rows, space % rows);
+			}
+			if (!placed) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * moves every snake at once.
+	 * 
+	 * @param moves - the direction each snake turns to by id, or null entries to
+	 *              keep going straight.
+	 */
+	public void step(Direction[] moves) {
+		step((arena, snake) -> moves[snake]);
+	}
+
+	/**
+	 * moves every snake at once, as chosen by a policy.
+	 * 
+	 * @param policy - picks the move of every living snake
+	 */
+	public void step(ArenaPolicy policy) {
+		pool.invoke(new Phase(choose, policy, 0, count));
+		bucketByRegion();
+		pool.invoke(new Phase(resolve, null, 0, regions));
+		pool.invoke(new Phase(advance, null, 0, count));
+		pool.invoke(new Phase(moveHeads, null, 0, count));
+		for (int k = 0; k < count; k++) {
+			if (alive[k] && dies[k]) {
+				alive[k] = false;
+				aliveCount--;
+			} else if (alive[k] && eats[k]) {
+				foodCount--;
+			}
+		}
+		placeFood();
+		tick++;
+	}
+
+	/**
+	 * turns the snakes and finds the space each one moves onto.
+	 * 
+	 * @param policy - picks the moves
+	 * @param from   - the first snake id
+	 * @param to     - the id after the last snake
+	 */
+	private void choose(ArenaPolicy policy, int from, int to) {
+		for (int k = from; k < to; k++) {
+			if (!alive[k]) {
+				continue;
+			}
+			Direction newDirection = policy.choose(this, k);
+			// a snake cannot reverse over itself:
+			if (newDirection != null && newDirection.ordinal() != previousDirection[k]) {
+				direction[k] = (byte) newDirection.ordinal();
+			}
+			Direction d = directions[direction[k]];
+			int target = index(wrapI(heads[k] / rows + d.getDi()), wrapJ(heads[k] % rows + d.getDj()));
+			targets[k] = target;
+			eats[k] = owners[target] == -1;
+			dies[k] = false;
+		}
+	}
+
+	/**
+	 * sorts the living snakes by the strip of the board their target is in, so
+	 * every strip can find its collisions on its own.
+	 */
+	private void bucketByRegion() {
+		Arrays.fill(bucketStarts, 0);
+		for (int k = 0; k < count; k++) {
+			if (alive[k]) {
+				bucketStarts[regionOfColumn[targets[k] / rows] + 1]++;
+			}
+		}
+		for (int region = 0; region < regions; region++) {
+			bucketStarts[region + 1] += bucketStarts[region];
+		}
+		// fill each bucket from its end, so the starts are left in place:
+		for (int k = count - 1; k >= 0; k--) {
+			if (alive[k]) {
+				int region = regionOfColumn[targets[k] / rows];
+				bucketed[--bucketStarts[region + 1]] = k;
+			}
+		}
+		// each end has moved back to the start of its own bucket:
+		System.arraycopy(bucketStarts, 1, bucketStarts, 0, regions);
+		bucketStarts[regions] = aliveCount;
+	}
+
+	/**
+	 * finds the snakes that die moving into one strip of the board.
+	 * 
+	 * @param region - the strip
+	 */
+	private void resolve(int region) {
+		int from = bucketStarts[region];
+		int to = bucketStarts[region + 1];
+		for (int b = from; b < to; b++) {
+			claims[targets[bucketed[b]]]++;
+		}
+		for (int b = from; b < to; b++) {
+			int k = bucketed[b];
+			int target = targets[k];
+			int owner = owners[target] - 1;
+			if (claims[target] > 1) {
+				// heads meeting on the same space:
+				dies[k] = true;
+			} else if (owner >= 0 && (tails[owner] != target || eats[owner])) {
+				// a body, or a tail that stays put because its snake is growing:
+				dies[k] = true;
+			} else if (owner >= 0 && owner != k && targets[owner] == heads[k]) {
+				// two heads passing through each other:
+				dies[k] = true;
+			}
+		}
+		for (int b = from; b < to; b++) {
+			claims[targets[bucketed[b]]] = 0;
+		}
+	}
+
+	/**
+	 * moves the tails of the surviving snakes and clears the dead ones off the
+	 * board. Every space changed belongs to the snake being moved.
+	 * 
+	 * @param from - the first snake id
+	 * @param to   - the id after the last snake
+	 */
+	private void advance(int from, int to) {
+		for (int k = from; k < to; k++) {
+			if (!alive[k]) {
+				continue;
+			}
+			if (dies[k]) {
+				int space = tails[k];
+				for (int n = 0; n < lengths[k]; n++) {
+					owners[space] = 0;
+					space = next(space);
+				}
+			} else {
+				exits[heads[k]] = direction[k];
+				if (eats[k]) {
+					lengths[k]++;
+					scores[k]++;
+				} else {
+					owners[tails[k]] = 0;
+					tails[k] = next(tails[k]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * moves the heads of the surviving snakes onto their targets, which no other
+	 * snake moves onto.
+	 * 
+	 * @param from - the first snake id
+	 * @param to   - the id after the last snake
+	 */
+	private void moveHeads(int from, int to) {
+		for (int k = from; k < to; k++) {
+			if (alive[k] && !dies[k]) {
+				owners[targets[k]] = k + 1;
+				heads[k] = targets[k];
+				previousDirection[k] = (byte) directions[direction[k]].opposite().ordinal();
+			}
+		}
+	}
+
+	/**
+	 * follows a body space to the next one towards the head.
+	 * 
+	 * @param space - a body space other than the head
+	 * @return the space the snake moved onto from it.
+	 */
+	private int next(int space) {
+		Direction d = directions[exits[space]];
+		return index(wrapI(space / rows + d.getDi()), wrapJ(space % rows + d.getDj()));
+	}
+
+	/**
+	 * runs one phase of a tick over a range of snakes or strips, splitting it in
+	 * half until the pieces are small enough for one thread.
+	 */
+	private class Phase extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int phase;
+		private final ArenaPolicy policy;
+		private final int from;
+		private final int to;
+
+		Phase(int phase, ArenaPolicy policy, int from, int to) {
+			this.phase = phase;
+			this.policy = policy;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			int size = phase == resolve ? 1 : grain;
+			if (to - from > size) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Phase(phase, policy, from, mid), new Phase(phase, policy, mid, to));
+				return;
+			}
+			switch (phase) {
+			case choose:
+				choose(policy, from, to);
+				break;
+			case resolve:
+				for (int region = from; region < to; region++) {
+					resolve(region);
+				}
+				break;
+			case advance:
+				advance(from, to);
+				break;
+			default:
+				moveHeads(from, to);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * wraps a column index around the board.
+	 * 
+	 * @param i - the column index
+	 * @return the index within 0 - cols-1
+	 */
+	private int wrapI(int i) {
+		i = i % cols;
+		if (i < 0) {
+			i = cols + i;
+		}
+		return i;
+	}
+
+	/**
+	 * wraps a row index around the board.
+	 * 
+	 * @param j - the row index
+	 * @return the index within 0 - rows-1
+	 */
+	private int wrapJ(int j) {
+		j = j % rows;
+		if (j < 0) {
+			j = rows + j;
+		}
+		return j;
+	}
+
+	/**
+	 * packs already wrapped indices into a space index.
+	 * 
+	 * @param i - column index
+	 * @param j - row index
+	 * @return i * rows + j
+	 */
+	private int index(int i, int j) {
+		return i * rows + j;
+	}
+
+	/**
+	 * gets the snake covering a space, wrapping the indices around the board.
+	 * 
+	 * @param i - column index
+	 * @param j - row index
+	 * @return the id of the snake, or -1 if there is none.
+	 */
+	public int getOwner(int i, int j) {
+		return Math.max(owners[index(wrapI(i), wrapJ(j))], 0) - 1;
+	}
+
+	/**
+	 * gets the label of a space, wrapping the indices around the board.
+	 * 
+	 * @param i - column index
+	 * @param j - row index
+	 * @return 'N' for an empty space, 'S' for a snake and 'F' for food.
+	 */
+	public char getLabel(int i, int j) {
+		int owner = owners[index(wrapI(i), wrapJ(j))];
+		if (owner > 0) {
+			return GameEngine.SNAKE;
+		} else if (owner < 0) {
+			return GameEngine.FOOD;
+		}
+		return GameEngine.EMPTY;
+	}
+
+	/**
+	 * stops the worker threads once the arena is no longer needed.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	public int getCols() {
+		return cols;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return the number of ticks played.
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * @return the number of snakes ever added, living or dead.
+	 */
+	public int getSnakeCount() {
+		return count;
+	}
+
+	/**
+	 * @return the number of living snakes.
+	 */
+	public int getAliveCount() {
+		return aliveCount;
+	}
+
+	/**
+	 * @return the number of food on the board.
+	 */
+	public int getFoodCount() {
+		return foodCount;
+	}
+
+	public boolean isAlive(int snake) {
+		return alive[snake];
+	}
+
+	public int getScore(int snake) {
+		return scores[snake];
+	}
+
+	public int getLength(int snake) {
+		return lengths[snake];
+	}
+
+	public Direction getDirection(int snake) {
+		return directions[direction[snake]];
+	}
+
+	public int getHeadI(int snake) {
+		return heads[snake] / rows;
+	}
+
+	public int getHeadJ(int snake) {
+		return heads[snake] % rows;
+	}
+
+	public int getTailI(int snake) {
+		return tails[snake] / rows;
+	}
+
+	public int getTailJ(int snake) {
+		return tails[snake] % rows;
+	}
+}
@@ -0,0 +1,42 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * chooses the moves of the snakes in an {@link Arena}.
+ * 
+ * @author jgcaf
+ *
+ */
+public interface ArenaPolicy {
+
+	/**
+	 * picks the next move of one snake. The arena asks for many snakes at once
+	 * from its worker threads, so a policy must only read the arena and keep any
+	 * state of its own per snake.
+	 * 
+	 * @param arena - the arena being played
+	 * @param snake - the id of the snake moving
+	 * @return the direction to turn to, or null to keep going straight.
+	 */
+	Direction choose(Arena arena, int snake);
+}
@@ -0,0 +1,146 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the Arena class - many snakes moving at once.
+ * 
+ * @author jgcaf
+ *
+ */
+class ArenaTest {
+	Arena arena;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// 10 x 10 board without random food
+		arena = new Arena(10, 10, 0, 1L, 2);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		arena.shutdown();
+	}
+
+	/**
+	 * checks that two heads moving onto the same space both die and are cleared
+	 * off the board.
+	 */
+	@Test
+	void headOnCollisionKillsBoth() {
+		int a = arena.addSnake(2, 5, Direction.D);
+		int b = arena.addSnake(4, 5, Direction.A);
+		arena.step(new Direction[2]);
+		assertFalse(arena.isAlive(a));
+		assertFalse(arena.isAlive(b));
+		assertEquals(0, arena.getAliveCount());
+		assertEquals(GameEngine.EMPTY, arena.getLabel(2, 5));
+		assertEquals(GameEngine.EMPTY, arena.getLabel(3, 5));
+		assertEquals(GameEngine.EMPTY, arena.getLabel(4, 5));
+	}
+
+	/**
+	 * checks that two heads cannot pass through each other.
+	 */
+	@Test
+	void swappingHeadsKillsBoth() {
+		int a = arena.addSnake(2, 5, Direction.D);
+		int b = arena.addSnake(3, 5, Direction.A);
+		arena.step(new Direction[2]);
+		assertFalse(arena.isAlive(a));
+		assertFalse(arena.isAlive(b));
+	}
+
+	/**
+	 * checks that a snake can move onto the space another snake's tail leaves,
+	 * and dies running into a body.
+	 */
+	@Test
+	void followsTailButNotBody() {
+		int a = arena.addSnake(2, 5, Direction.D);
+		int b = arena.addSnake(3, 5, Direction.D);
+		arena.step(new Direction[2]);
+		assertTrue(arena.isAlive(a));
+		assertTrue(arena.isAlive(b));
+		assertEquals(a, arena.getOwner(3, 5));
+		assertEquals(b, arena.getOwner(4, 5));
+
+		// b grows, so its tail stays where a moves next:
+		arena.generateOnSpace(5, 5);
+		arena.step(new Direction[2]);
+		assertFalse(arena.isAlive(a));
+		assertTrue(arena.isAlive(b));
+		assertEquals(2, arena.getLength(b));
+		assertEquals(1, arena.getScore(b));
+		assertEquals(0, arena.getFoodCount());
+		assertEquals(b, arena.getOwner(4, 5));
+		assertEquals(b, arena.getOwner(5, 5));
+		assertEquals(-1, arena.getOwner(3, 5));
+	}
+
+	/**
+	 * checks that a crowded tournament plays the same on one thread as on
+	 * several.
+	 */
+	@Test
+	void resultsDoNotDependOnThreadCount() {
+		Arena single = play(1);
+		Arena several = play(4);
+		assertEquals(single.getAliveCount(), several.getAliveCount());
+		for (int k = 0; k < single.getSnakeCount(); k++) {
+			assertEquals(single.isAlive(k), several.isAlive(k));
+			assertEquals(single.getScore(k), several.getScore(k));
+		}
+		int[] covered = new int[single.getSnakeCount()];
+		for (int i = 0; i < single.getCols(); i++) {
+			for (int j = 0; j < single.getRows(); j++) {
+				assertEquals(single.getOwner(i, j), several.getOwner(i, j));
+				if (single.getOwner(i, j) >= 0) {
+					covered[single.getOwner(i, j)]++;
+				}
+			}
+		}
+		// every living snake covers exactly its length, the dead are cleared:
+		for (int k = 0; k < covered.length; k++) {
+			assertEquals(single.isAlive(k) ? single.getLength(k) : 0, covered[k]);
+		}
+		assertTrue(single.getAliveCount() > 0);
+		assertTrue(single.getAliveCount() < single.getSnakeCount());
+	}
+
+	private Arena play(int parallelism) {
+		Direction[] directions = Direction.values();
+		Arena played = new Arena(300, 200, 500, 9L, parallelism);
+		played.spawn(3000);
+		for (int t = 0; t < 200; t++) {
+			played.step((a, k) -> (a.getTick() + k) % 7 == 0 ? directions[(int) ((a.getTick() + k) % 4)] : null);
+		}
+		played.shutdown();
+		return played;
+	}
+}
@@ -0,0 +1,259 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * reads a replay written by {@link BinaryReplayWriter} one event at a time, so a
+ * replay can be played while it is still being read. Runs of moves are handed
+ * out as single moves.
+ * 
+ * @author jgcaf
+ *
+ */
+public class BinaryReplayReader implements ReplaySource {
+
+	private InputStream in;
+	private String[] settings;
+	private int cols;
+	private int rows;
+	private int startI;
+	private int startJ;
+	private boolean seeded = false;
+	private long seed;
+
+	private Direction direction;
+	private long runRemaining = 0;
+	private int foodI;
+	private int foodJ;
+	private long moves = 0;
+	private long recordedMoves = -1;
+
+	/**
+	 * reads and checks the header of a replay.
+	 * 
+	 * @param in - the stream the replay is read from
+	 * @throws IOException - if the stream can not be read, or the header is not a
+	 *                     valid replay header
+	 */
+	public BinaryReplayReader(InputStream in) throws IOException {
+		this.in = in;
+		CheckedInputStream checked = new CheckedInputStream(in, new CRC32());
+		DataInputStream header = new DataInputStream(checked);
+		byte[] fileMagic = new byte[BinaryReplayWriter.magic.length];
+		header.readFully(fileMagic);
+		for (int k = 0; k < fileMagic.length; k++) {
+			if (fileMagic[k] != BinaryReplayWriter.magic[k]) {
+				throw new IOException("not a snake replay");
+			}
+		}
+		int fileVersion = header.readUnsignedByte();
+		if (fileVersion != BinaryReplayWriter.version && fileVersion != BinaryReplayWriter.unseededVersion) {
+			throw new IOException("unsupported replay version " + fileVersion);
+		}
+		settings = new String[header.readUnsignedByte()];
+		for (int k = 0; k < settings.length; k++) {
+			settings[k] = header.readUTF();
+		}
+		cols = header.readInt();
+		rows = header.readInt();
+		startI = header.readInt();
+		startJ = header.readInt();
+		if (fileVersion >= BinaryReplayWriter.version) {
+			seeded = header.readBoolean();
+			seed = header.readLong();
+		}
+		int expected = (int) checked.getChecksum().getValue();
+		if (new DataInputStream(in).readInt() != expected) {
+			throw new IOException("replay header checksum does not match");
+		}
+	}
+
+	/**
+	 * reads the next event.
+	 * 
+	 * @return move, food or end.
+	 * @throws IOException - if the stream can not be read or is corrupted
+	 */
+	@Override
+	public int next() throws IOException {
+		if (runRemaining > 0) {
+			runRemaining--;
+			moves++;
+			return move;
+		}
+		if (recordedMoves >= 0) {
+			return end;
+		}
+		int tag = read();
+		if (tag == BinaryReplayWriter.endTag) {
+			recordedMoves = readVarint();
+			if (recordedMoves != moves) {
+				throw new IOException("replay has " + moves + " moves, expected " + recordedMoves);
+			}
+			return end;
+		}
+		if (tag == BinaryReplayWriter.foodTag) {
+			foodI = (int) readVarint();
+			foodJ = (int) readVarint();
+			return food;
+		}
+		if ((tag & 0x80) != 0) {
+			throw new IOException("unknown replay record " + tag);
+		}
+		direction = Direction.values()[tag >> 5];
+		runRemaining = tag & BinaryReplayWriter.maxShortRun;
+		if (runRemaining == 0) {
+			runRemaining = readVarint();
+		}
+		runRemaining--;
+		moves++;
+		return move;
+	}
+
+	/**
+	 * @return the direction of the last move read.
+	 */
+	@Override
+	public Direction getDirection() {
+		return direction;
+	}
+
+	/**
+	 * @return the column of the last food read.
+	 */
+	@Override
+	public int getFoodI() {
+		return foodI;
+	}
+
+	/**
+	 * @return the row of the last food read.
+	 */
+	@Override
+	public int getFoodJ() {
+		return foodJ;
+	}
+
+	/**
+	 * @return the five user settings stored in the header.
+	 */
+	@Override
+	public String[] getSettings() {
+		return settings;
+	}
+
+	/**
+	 * @return the settings joined into the line used by text logs.
+	 */
+	public String getSettingsLine() {
+		return String.join("-", settings);
+	}
+
+	/**
+	 * @return the number of columns
+	 */
+	@Override
+	public int getCols() {
+		return cols;
+	}
+
+	/**
+	 * @return the number of rows
+	 */
+	@Override
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return the column the snake started on.
+	 */
+	@Override
+	public int getStartI() {
+		return startI;
+	}
+
+	/**
+	 * @return the row the snake started on.
+	 */
+	@Override
+	public int getStartJ() {
+		return startJ;
+	}
+
+	@Override
+	public boolean hasSeed() {
+		return seeded;
+	}
+
+	@Override
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * reads one byte.
+	 * 
+	 * @return the byte.
+	 * @throws IOException - if the stream ended early
+	 */
+	private int read() throws IOException {
+		int b = in.read();
+		if (b < 0) {
+			throw new EOFException("replay ended without an end record");
+		}
+		return b;
+	}
+
+	/**
+	 * reads an unsigned number written 7 bits at a time.
+	 * 
+	 * @return the number.
+	 * @throws IOException - if the stream ended early
+	 */
+	private long readVarint() throws IOException {
+		long value = 0;
+		int shift = 0;
+		int b;
+		do {
+			if (shift > 63) {
+				throw new IOException("replay number is too long");
+			}
+			b = read();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+}
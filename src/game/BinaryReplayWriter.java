@@ -0,0 +1,217 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * writes the compact binary replay format. A replay starts with a header holding
+ * the board settings once, followed by a stream of records:
+ * 
+ * <pre>
+ * header:  "SNKR", version byte, the five settings strings, cols, rows,
+ *          startI, startJ, a seeded flag byte and the seed (version 2 on),
+ *          then a CRC32 of everything before it
+ * 0ddnnnnn run of n (1-31) moves in direction d (W, A, S, D = 0-3); if n is 0
+ *          the run length follows as a varint
+ * 0x80     food placed, followed by its column and row as varints
+ * 0xFF     end of the replay, followed by the number of moves as a varint
+ * </pre>
+ * 
+ * The head and tail positions are not stored since they follow from the start,
+ * the moves and the food. A seeded replay has no food records at all, its food
+ * follows from the seed.
+ * 
+ * @author jgcaf
+ *
+ */
+public class BinaryReplayWriter {
+	static protected final byte[] magic = { 'S', 'N', 'K', 'R' };
+	static protected final int version = 2;
+	// the first version, which has no seed in its header:
+	static protected final int unseededVersion = 1;
+	static protected final int foodTag = 0x80;
+	static protected final int endTag = 0xFF;
+	static protected final int maxShortRun = 31;
+
+	private OutputStream out;
+	private Direction runDirection = null;
+	private long runLength = 0;
+	private long moves = 0;
+
+	/**
+	 * writes the header of a new replay.
+	 * 
+	 * @param out      - the stream the replay is written to
+	 * @param settings - the five user settings: density code, speed code, and the
+	 *                 snake, board and food colors
+	 * @param cols     - total number of columns
+	 * @param rows     - total number of rows
+	 * @param startI   - column the snake started on
+	 * @param startJ   - row the snake started on
+	 * @throws IOException - if the stream can not be written
+	 */
+	public BinaryReplayWriter(OutputStream out, String[] settings, int cols, int rows, int startI, int startJ)
+			throws IOException {
+		this(out, settings, cols, rows, startI, startJ, false, 0);
+	}
+
+	/**
+	 * writes the header of a new seeded replay. Its food is not recorded.
+	 * 
+	 * @param out      - the stream the replay is written to
+	 * @param settings - the five user settings
+	 * @param cols     - total number of columns
+	 * @param rows     - total number of rows
+	 * @param startI   - column the snake started on
+	 * @param startJ   - row the snake started on
+	 * @param seed     - the seed the run's food was placed from
+	 * @throws IOException - if the stream can not be written
+	 */
+	public BinaryReplayWriter(OutputStream out, String[] settings, int cols, int rows, int startI, int startJ,
+			long seed) throws IOException {
+		this(out, settings, cols, rows, startI, startJ, true, seed);
+	}
+
+	private BinaryReplayWriter(OutputStream out, String[] settings, int cols, int rows, int startI, int startJ,
+			boolean seeded, long seed) throws IOException {
+		this.out = out;
+		CRC32 crc = new CRC32();
+		DataOutputStream header = new DataOutputStream(new CheckedOutput(out, crc));
+		header.write(magic);
+		header.writeByte(version);
+		header.writeByte(settings.length);
+		for (int k = 0; k < settings.length; k++) {
+			header.writeUTF(settings[k]);
+		}
+		header.writeInt(cols);
+		header.writeInt(rows);
+		header.writeInt(startI);
+		header.writeInt(startJ);
+		header.writeBoolean(seeded);
+		header.writeLong(seed);
+		header.flush();
+		new DataOutputStream(out).writeInt((int) crc.getValue());
+	}
+
+	/**
+	 * records one move.
+	 * 
+	 * @param direction - the direction the snake moved in
+	 * @throws IOException - if the stream can not be written
+	 */
+	public void move(Direction direction) throws IOException {
+		if (direction != runDirection) {
+			endRun();
+			runDirection = direction;
+		}
+		runLength++;
+		moves++;
+	}
+
+	/**
+	 * records food being placed after the last move.
+	 * 
+	 * @param i - column of the food
+	 * @param j - row of the food
+	 * @throws IOException - if the stream can not be written
+	 */
+	public void food(int i, int j) throws IOException {
+		endRun();
+		out.write(foodTag);
+		writeVarint(i);
+		writeVarint(j);
+	}
+
+	/**
+	 * ends the replay. The underlying stream is flushed but left open.
+	 * 
+	 * @throws IOException - if the stream can not be written
+	 */
+	public void finish() throws IOException {
+		endRun();
+		out.write(endTag);
+		writeVarint(moves);
+		out.flush();
+	}
+
+	/**
+	 * writes the moves collected in the current straight run.
+	 * 
+	 * @throws IOException - if the stream can not be written
+	 */
+	private void endRun() throws IOException {
+		if (runLength == 0) {
+			return;
+		}
+		int code = runDirection.ordinal() << 5;
+		if (runLength <= maxShortRun) {
+			out.write(code | (int) runLength);
+		} else {
+			out.write(code);
+			writeVarint(runLength);
+		}
+		runLength = 0;
+	}
+
+	/**
+	 * writes an unsigned number 7 bits at a time, low bits first.
+	 * 
+	 * @param value - the number being written
+	 * @throws IOException - if the stream can not be written
+	 */
+	private void writeVarint(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	/**
+	 * passes bytes through to a stream while adding them to a checksum.
+	 */
+	static private class CheckedOutput extends OutputStream {
+		private final OutputStream out;
+		private final CRC32 crc;
+
+		CheckedOutput(OutputStream out, CRC32 crc) {
+			this.out = out;
+			this.crc = crc;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			crc.update(b);
+			out.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			crc.update(b, off, len);
+			out.write(b, off, len);
+		}
+	}
+}
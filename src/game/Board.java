@@ -23,21 +23,29 @@
 package game;
 
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
+import jdk.jfr.EventType;
 
 /**
  * the game board - also contains methods that control how all game pieces are
- * displayed.
+ * displayed. The state of the game lives in a headless {@link GameEngine}, which
+ * keeps one byte per space in a {@link CellStore}; the board only draws it.
  * 
  * @author jgcaf
  *
  */
 public class Board {
+	static private final EventType renderEvents = EventType.getEventType(RenderEvent.class);
 
-	private Cell[][] grid;
 	private int rows;
 	private int cols;
-	private Integer score = 0;
+	private int dX;
+	private int dY;
+	private GameEngine engine;
+	// the board drawn one pixel block per space, made for the canvas size:
+	private WritableImage image;
+	private PixelRenderer pixels;
 
 	protected Color foodRGB;
 	protected Color snakeRGB;
@@ -48,41 +56,124 @@ public class Board {
 	 * 
 	 * @param nrows      - total number of rows
 	 * @param ncols      - total number of columns
-	 * @param windHeight - board height in px
 	 * @param winWidth   - board width in px
+	 * @param winHeight  - board height in px
 	 */
-	public Board(int nrows, int ncols, int windHeight, int winWidth) {
+	public Board(int nrows, int ncols, int winWidth, int winHeight) {
+		this(nrows, ncols, winWidth, winHeight, GameEngine.newSeed());
+	}
+
+	/**
+	 * initializes a board whose food is placed from a given seed - for replaying
+	 * a seeded run.
+	 * 
+	 * @param nrows      - total number of rows
+	 * @param ncols      - total number of columns
+	 * @param winWidth   - board width in px
+	 * @param winHeight  - board height in px
+	 * @param seed       - the seed the food locations are drawn from
+	 */
+	public Board(int nrows, int ncols, int winWidth, int winHeight, long seed) {
 		this.rows = nrows;
 		this.cols = ncols;
 
-		int dX = winWidth / ncols;
-		int dY = winWidth / nrows;
+		dX = winWidth / ncols;
+		dY = winHeight / nrows;
 
-		score = 0;
+		engine = new GameEngine(ncols, nrows, seed);
+	}
 
-		this.grid = new Cell[cols][rows];
+	/**
+	 * displays the cells of the board. Only the spaces that changed since the
+	 * last call are redrawn into the board's image, and the image is drawn with a
+	 * single call - nothing is drawn if the game did not change.
+	 * 
+	 * @param g - the graphics context for displaying the cells from the board.
+	 */
+	public void display(GraphicsContext g) {
+		prepareImage(g);
+		if (!renderEvents.isEnabled()) {
+			draw(g, null);
+			return;
+		}
+		RenderEvent event = new RenderEvent();
+		event.begin();
+		DirtyCells dirty = engine.getDirtyCells();
+		int changed = dirty.isAllDirty() ? -1 : dirty.size();
+		boolean drawn = draw(g, null);
+		commit(event, changed, drawn);
+	}
 
-		for (int i = 0; i < cols; i++) {
-			for (int j = 0; j < rows; j++) {
-				// Initialize each object
-				grid[i][j] = new Cell(i * dX, j * dY, dX, dY, i, j, foodRGB, snakeRGB, boardRGB);
-			}
+	/**
+	 * displays a frame of the board captured by the simulation thread, redrawing
+	 * the spaces the frame lists as changed since the last frame displayed. The
+	 * engine itself is not read, so the game can go on while the frame is drawn.
+	 * 
+	 * @param g     - the graphics context for displaying the cells from the board.
+	 * @param frame - the frame to display
+	 */
+	public void display(GraphicsContext g, BoardFrame frame) {
+		prepareImage(g);
+		if (!renderEvents.isEnabled()) {
+			draw(g, frame);
+			return;
 		}
+		RenderEvent event = new RenderEvent();
+		event.begin();
+		DirtyCells changes = frame.getChanges();
+		int changed = changes.isAllDirty() ? -1 : changes.size();
+		boolean drawn = draw(g, frame);
+		commit(event, changed, drawn);
 	}
 
 	/**
-	 * displays the cells of the board
+	 * creates the image of the board, or a new one if the canvas was resized.
 	 * 
-	 * @param g - the graphics context for displaying the cells from the board.
+	 * @param g - the graphics context of the canvas
 	 */
-	public void display(GraphicsContext g) {
-		// The counter variables i and j are also the column and row numbers and
-		// are used as arguments to the constructor for each object in the grid.
-		for (int i = 0; i < cols; i++) {
-			for (int j = 0; j < rows; j++) {
-				// Oscillate and display each object
-				grid[i][j].display(g);
-			}
+	private void prepareImage(GraphicsContext g) {
+		int width = (int) g.getCanvas().getWidth();
+		int height = (int) g.getCanvas().getHeight();
+		if (image == null || pixels.getWidth() != width || pixels.getHeight() != height) {
+			image = new WritableImage(width, height);
+			// a new renderer draws every space the first time:
+			pixels = new PixelRenderer(engine, width, height, image.getPixelWriter());
+		}
+	}
+
+	/**
+	 * redraws the changed spaces into the image, and the image onto the canvas.
+	 * 
+	 * @param g     - the graphics context of the canvas
+	 * @param frame - the frame to draw, or null to draw the engine's changes
+	 * @return false if nothing changed, so nothing was drawn.
+	 */
+	private boolean draw(GraphicsContext g, BoardFrame frame) {
+		int boardArgb = PixelRenderer.argb(boardRGB);
+		int snakeArgb = PixelRenderer.argb(snakeRGB);
+		int foodArgb = PixelRenderer.argb(foodRGB);
+		boolean drawn = frame == null ? pixels.update(boardArgb, snakeArgb, foodArgb)
+				: pixels.update(frame.getCells(), frame.getChanges(), boardArgb, snakeArgb, foodArgb);
+		if (drawn) {
+			g.drawImage(image, 0, 0);
+		}
+		return drawn;
+	}
+
+	/**
+	 * commits a render event.
+	 * 
+	 * @param event   - the event, begun before drawing
+	 * @param changed - the number of changed spaces, -1 for all of them
+	 * @param drawn   - whether the image was drawn
+	 */
+	private void commit(RenderEvent event, int changed, boolean drawn) {
+		if (event.shouldCommit()) {
+			event.cols = cols;
+			event.rows = rows;
+			event.changedSpaces = changed;
+			event.drawn = drawn;
+			event.commit();
 		}
 	}
 
@@ -91,19 +182,21 @@ public class Board {
 	 * 
 	 * @param i - row index
 	 * @param j - column index
-	 * @return the specified space from the board.
+	 * @return the packed index of the specified space, with the indices wrapped
+	 *         around the board.
 	 */
-	public Cell getSpace(int i, int j) {
-		// wrap index around:
-		i = i % cols;
-		if (i < 0) {
-			i = cols + i;
-		}
-		j = j % rows;
-		if (j < 0) {
-			j = rows + j;
-		}
-		return grid[i][j];
+	public long getSpace(int i, int j) {
+		return engine.getSpace(i, j);
+	}
+
+	/**
+	 * gets the label of a space on the board
+	 * 
+	 * @param space - the packed index of the space
+	 * @return 'N' for an empty space, 'S' for the snake and 'F' for food.
+	 */
+	public char getLabel(long space) {
+		return engine.getLabel(space);
 	}
 
 	/**
@@ -123,18 +216,35 @@ public class Board {
 	}
 
 	/**
-	 * increases the score by one point.
+	 * 
+	 * @return the width of a space in px.
+	 */
+	public int getSpaceWidth() {
+		return dX;
+	}
+
+	/**
+	 * 
+	 * @return the height of a space in px.
 	 */
-	public void incrementScore() {
-		score = score + 1;
+	public int getSpaceHeight() {
+		return dY;
 	}
 
 	/**
 	 * 
 	 * @return the score.
 	 */
-	public Integer getScore() {
-		return score;
+	public int getScore() {
+		return engine.getScore();
+	}
+
+	/**
+	 * 
+	 * @return the headless engine holding the state of the game.
+	 */
+	public GameEngine getEngine() {
+		return engine;
 	}
 
 	/**
@@ -148,10 +258,10 @@ public class Board {
 		this.foodRGB = foodRGB;
 		this.snakeRGB = snakeRGB;
 		this.boardRGB = boardRGB;
-		for (int i = 0; i < cols; i++) {
-			for (int j = 0; j < rows; j++) {
-				grid[i][j].setColors(boardRGB, snakeRGB, foodRGB);
-			}
+		// every space has to be drawn with the new colors. The engine's changes
+		// are left alone, as they may belong to the simulation thread:
+		if (pixels != null) {
+			pixels.invalidate();
 		}
 	}
 
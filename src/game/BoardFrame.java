@@ -0,0 +1,181 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * a copy of the board and the score after a tick, published by the simulation
+ * thread for the JavaFX thread to draw. Frames are reused, so a frame only
+ * belongs to the thread that took it from the exchange until it is handed back.
+ * A frame is brought up to date by copying only the spaces that changed since it
+ * was last captured, and it lists the spaces that may differ from the frames the
+ * reader drew before, so drawing it costs as much as the changes.
+ * 
+ * @author jgcaf
+ *
+ */
+public class BoardFrame {
+	private final PackedCellStore cells;
+	// spaces that changed in the game since the frame was captured, kept by the
+	// writer also while the reader holds the frame:
+	private final DirtyCells stale;
+	// spaces that may differ from the last frame the reader drew:
+	private final DirtyCells changes;
+	private long sequence;
+	private int score;
+	private boolean dead;
+	private boolean won;
+	// the moves applied by the game that the reader had not drawn yet:
+	private final long[] inputPressed = new long[InputLatency.capacity];
+	private final long[] inputApplied = new long[InputLatency.capacity];
+	private final long[] inputFrame = new long[InputLatency.capacity];
+	private int inputCount = 0;
+
+	/**
+	 * creates an empty frame.
+	 * 
+	 * @param cols     - total number of columns
+	 * @param rows     - total number of rows
+	 * @param capacity - the number of changed spaces listed before the whole
+	 *                 board is copied or drawn
+	 */
+	public BoardFrame(int cols, int rows, int capacity) {
+		cells = new PackedCellStore(cols, rows);
+		// an empty frame is behind on every space:
+		stale = new DirtyCells(capacity);
+		changes = new DirtyCells(capacity);
+	}
+
+	/**
+	 * notes spaces that changed in the game, to be copied at the next capture.
+	 * 
+	 * @param changed - the spaces that changed
+	 */
+	void markStale(DirtyCells changed) {
+		if (changed.isAllDirty()) {
+			stale.markAll();
+			return;
+		}
+		for (int k = 0; k < changed.size(); k++) {
+			stale.mark(changed.get(k));
+		}
+	}
+
+	/**
+	 * copies the state of a game into the frame, only reading the spaces that
+	 * changed since the last capture.
+	 * 
+	 * @param engine - the game
+	 */
+	void capture(GameEngine engine) {
+		CellStore store = engine.getStore();
+		if (stale.isAllDirty()) {
+			cells.copyFrom(store);
+		} else {
+			for (int k = 0; k < stale.size(); k++) {
+				long space = stale.get(k);
+				cells.set(space, store.get(space));
+			}
+		}
+		stale.clear();
+		score = engine.getScore();
+		dead = engine.isDead();
+		won = engine.isWon();
+		inputCount = 0;
+	}
+
+	/**
+	 * adds a move the frame shows, for measuring how long it took to be drawn.
+	 * Moves past the capacity are left out.
+	 * 
+	 * @param pressedNanos - when the move was made
+	 * @param appliedNanos - when the tick that applied it started
+	 * @param firstFrame   - the sequence of the first frame showing the move
+	 */
+	void addInput(long pressedNanos, long appliedNanos, long firstFrame) {
+		if (inputCount < inputPressed.length) {
+			inputPressed[inputCount] = pressedNanos;
+			inputApplied[inputCount] = appliedNanos;
+			inputFrame[inputCount] = firstFrame;
+			inputCount++;
+		}
+	}
+
+	/**
+	 * @return the number of moves added to the frame.
+	 */
+	int getInputCount() {
+		return inputCount;
+	}
+
+	long getInputPressed(int k) {
+		return inputPressed[k];
+	}
+
+	long getInputApplied(int k) {
+		return inputApplied[k];
+	}
+
+	long getInputFrame(int k) {
+		return inputFrame[k];
+	}
+
+	void setSequence(long sequence) {
+		this.sequence = sequence;
+	}
+
+	/**
+	 * @return the number of the frame, counting the frames published from 1.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the spaces of the board.
+	 */
+	public CellStore getCells() {
+		return cells;
+	}
+
+	/**
+	 * gets the spaces that may differ from the last frame the reader drew - the
+	 * only ones that need drawing again. It is all dirty when too many changed,
+	 * or the reader has not drawn a whole frame since.
+	 * 
+	 * @return the changed spaces.
+	 */
+	public DirtyCells getChanges() {
+		return changes;
+	}
+
+	public int getScore() {
+		return score;
+	}
+
+	public boolean isDead() {
+		return dead;
+	}
+
+	public boolean isWon() {
+		return won;
+	}
+}
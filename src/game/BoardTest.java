@@ -0,0 +1,51 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the Board class - checks the size of its spaces.
+ * 
+ * @author jgcaf
+ *
+ */
+class BoardTest {
+
+	/**
+	 * checks that a board that is not square takes its width from the columns and
+	 * its height from the rows, in the order the game passes them.
+	 */
+	@Test
+	void nonSquareBoardSizesItsSpaces() {
+		Board board = new Board(10, 20, 400, 300, 1L);
+		assertEquals(10, board.getRows());
+		assertEquals(20, board.getCols());
+		assertEquals(20, board.getSpaceWidth());
+		assertEquals(30, board.getSpaceHeight());
+		assertEquals(20, board.getEngine().getCols());
+		assertEquals(10, board.getEngine().getRows());
+	}
+
+}
@@ -0,0 +1,70 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * storage for the state of every space on a board. Spaces are addressed by a
+ * packed index, i * rows + j, so the board can be kept in flat primitive arrays
+ * instead of one object per space.
+ * 
+ * @author jgcaf
+ *
+ */
+public interface CellStore {
+	static public final byte EMPTY = 0;
+	static public final byte SNAKE = 1;
+	static public final byte FOOD = 2;
+
+	/**
+	 * 
+	 * @return the number of columns
+	 */
+	int getCols();
+
+	/**
+	 * 
+	 * @return the number of rows
+	 */
+	int getRows();
+
+	/**
+	 * gets the state of a space.
+	 * 
+	 * @param index - the packed index of the space, i * rows + j
+	 * @return EMPTY, SNAKE or FOOD
+	 */
+	byte get(long index);
+
+	/**
+	 * sets the state of a space.
+	 * 
+	 * @param index - the packed index of the space, i * rows + j
+	 * @param state - EMPTY, SNAKE or FOOD
+	 */
+	void set(long index, byte state);
+
+	/**
+	 * 
+	 * @return an estimate of the heap memory used by the store in bytes.
+	 */
+	long footprintBytes();
+}
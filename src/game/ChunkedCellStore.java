@@ -0,0 +1,150 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * a cell store for very large boards. The board is split into square tiles of
+ * 64x64 spaces, and a tile is only allocated the first time something is put on
+ * one of its spaces, so the memory used grows with the area the snake has
+ * visited instead of with the size of the board. Spaces in a tile that was
+ * never allocated are empty.
+ * 
+ * The tiles are found through a directory with one entry per column of tiles,
+ * which is itself allocated lazily, so even a 100k x 100k board starts with a
+ * directory of a few thousand references.
+ * 
+ * @author jgcaf
+ *
+ */
+public class ChunkedCellStore implements CellStore {
+	static public final int chunkBits = 6;
+	static public final int chunkSize = 1 << chunkBits;
+	static private final int chunkMask = chunkSize - 1;
+
+	private final int cols;
+	private final int rows;
+	private final int chunkRows;
+	// tiles by column of tiles, then row of tiles - null until first used:
+	private final byte[][][] chunks;
+	private int columnCount = 0;
+	private long chunkCount = 0;
+
+	/**
+	 * creates an empty store without allocating any tiles.
+	 * 
+	 * @param cols - total number of columns
+	 * @param rows - total number of rows
+	 */
+	public ChunkedCellStore(int cols, int rows) {
+		if (cols <= 0 || rows <= 0) {
+			throw new IllegalArgumentException("board must have at least one space: " + cols + "x" + rows);
+		}
+		this.cols = cols;
+		this.rows = rows;
+		this.chunkRows = (rows + chunkMask) >>> chunkBits;
+		this.chunks = new byte[(cols + chunkMask) >>> chunkBits][][];
+	}
+
+	@Override
+	public int getCols() {
+		return cols;
+	}
+
+	@Override
+	public int getRows() {
+		return rows;
+	}
+
+	@Override
+	public byte get(long index) {
+		int i = (int) (index / rows);
+		int j = (int) (index - (long) i * rows);
+		byte[][] column = chunks[i >>> chunkBits];
+		if (column == null) {
+			return EMPTY;
+		}
+		byte[] chunk = column[j >>> chunkBits];
+		if (chunk == null) {
+			return EMPTY;
+		}
+		return chunk[offset(i, j)];
+	}
+
+	@Override
+	public void set(long index, byte state) {
+		int i = (int) (index / rows);
+		int j = (int) (index - (long) i * rows);
+		byte[][] column = chunks[i >>> chunkBits];
+		if (column == null) {
+			// a tile that was never allocated is already empty:
+			if (state == EMPTY) {
+				return;
+			}
+			column = new byte[chunkRows][];
+			chunks[i >>> chunkBits] = column;
+			columnCount++;
+		}
+		byte[] chunk = column[j >>> chunkBits];
+		if (chunk == null) {
+			if (state == EMPTY) {
+				return;
+			}
+			chunk = new byte[chunkSize * chunkSize];
+			column[j >>> chunkBits] = chunk;
+			chunkCount++;
+		}
+		chunk[offset(i, j)] = state;
+	}
+
+	/**
+	 * gets the position of a space within its tile.
+	 * 
+	 * @param i - column of the space
+	 * @param j - row of the space
+	 * @return the offset into the tile's array.
+	 */
+	static private int offset(int i, int j) {
+		return (i & chunkMask) << chunkBits | (j & chunkMask);
+	}
+
+	/**
+	 * 
+	 * @return the number of tiles that have been allocated.
+	 */
+	public long getChunkCount() {
+		return chunkCount;
+	}
+
+	@Override
+	public long footprintBytes() {
+		// every array has a 16 byte header and is aligned to 8 bytes, references
+		// are compressed to 4 bytes:
+		long directory = align(16 + 4L * chunks.length);
+		long columns = columnCount * align(16 + 4L * chunkRows);
+		long tiles = chunkCount * align(16 + (long) chunkSize * chunkSize);
+		return directory + columns + tiles;
+	}
+
+	static private long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+}
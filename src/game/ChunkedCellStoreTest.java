@@ -0,0 +1,99 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the ChunkedCellStore class - boards too large to store flat.
+ * 
+ * @author jgcaf
+ *
+ */
+class ChunkedCellStoreTest {
+
+	/**
+	 * checks that the snake wraps around a 100k x 70k board, across the tiles at
+	 * opposite edges, and that only the visited tiles are allocated.
+	 */
+	@Test
+	void snakeWrapsAcrossChunks() {
+		int cols = 100000;
+		int rows = 70001;
+		GameEngine engine = new GameEngine(cols, rows, 42L);
+		assertTrue(engine.getStore() instanceof ChunkedCellStore);
+		engine.start(0, 0);
+
+		engine.step(Direction.A);
+		assertEquals(cols - 1, engine.getHeadI());
+		assertEquals(0, engine.getHeadJ());
+		engine.step(Direction.W);
+		assertEquals(cols - 1, engine.getHeadI());
+		assertEquals(rows - 1, engine.getHeadJ());
+		engine.step(Direction.D);
+		assertEquals(0, engine.getHeadI());
+		assertEquals(rows - 1, engine.getHeadJ());
+		assertFalse(engine.isDead());
+
+		assertEquals(GameEngine.SNAKE, engine.getLabel(0, -1));
+		assertEquals(GameEngine.SNAKE, engine.getLabel(cols, rows - 1));
+		assertEquals(GameEngine.EMPTY, engine.getLabel(cols - 1, rows - 1));
+		assertEquals(GameEngine.EMPTY, engine.getLabel(0, 0));
+		assertEquals(GameEngine.FOOD, engine.getLabel(engine.getFoodI(), engine.getFoodJ()));
+
+		// the four corner tiles, and the one the food was placed on:
+		ChunkedCellStore store = (ChunkedCellStore) engine.getStore();
+		assertTrue(store.getChunkCount() <= 5);
+		assertTrue(store.footprintBytes() < 1 << 20);
+	}
+
+	/**
+	 * checks that a game played on tiles is the same as one played on a flat
+	 * array, on a non-square board that does not fill its last tiles.
+	 */
+	@Test
+	void sameGameAsPackedStore() {
+		int cols = 130;
+		int rows = 70;
+		GameEngine packed = new GameEngine(new PackedCellStore(cols, rows), 7L);
+		GameEngine chunked = new GameEngine(new ChunkedCellStore(cols, rows), 7L);
+		packed.start(cols / 2, rows / 2);
+		chunked.start(cols / 2, rows / 2);
+		Direction[] moves = { Direction.A, Direction.W, Direction.D, Direction.S };
+		for (int k = 0; k < 5000 && !packed.isDead(); k++) {
+			Direction move = k % 37 == 0 ? moves[(k / 37) % moves.length] : null;
+			packed.step(move);
+			chunked.step(move);
+			assertEquals(packed.getHeadI(), chunked.getHeadI());
+			assertEquals(packed.getHeadJ(), chunked.getHeadJ());
+			assertEquals(packed.getFoodI(), chunked.getFoodI());
+			assertEquals(packed.getFoodJ(), chunked.getFoodJ());
+		}
+		for (int i = 0; i < cols; i++) {
+			for (int j = 0; j < rows; j++) {
+				assertEquals(packed.getLabel(i, j), chunked.getLabel(i, j));
+			}
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * the four directions the snake can travel in. The constants use the same WASD
+ * letters as the keyboard controls and the recorded run logs, so they can be
+ * translated to and from either without a lookup table.
+ * 
+ * @author jgcaf
+ *
+ */
+public enum Direction {
+	W(0, -1), A(-1, 0), S(0, 1), D(1, 0);
+
+	private final int di;
+	private final int dj;
+
+	/**
+	 * initializes a direction with its step across the board.
+	 * 
+	 * @param di - change in the column index for one move
+	 * @param dj - change in the row index for one move
+	 */
+	private Direction(int di, int dj) {
+		this.di = di;
+		this.dj = dj;
+	}
+
+	/**
+	 * @return the change in the column index for one move in this direction.
+	 */
+	public int getDi() {
+		return di;
+	}
+
+	/**
+	 * @return the change in the row index for one move in this direction.
+	 */
+	public int getDj() {
+		return dj;
+	}
+
+	/**
+	 * gets the direction pointing the opposite way - the snake is never allowed
+	 * to turn into this direction since it would reverse over itself.
+	 * 
+	 * @return the opposite direction.
+	 */
+	public Direction opposite() {
+		switch (this) {
+		case W:
+			return S;
+		case S:
+			return W;
+		case A:
+			return D;
+		default:
+			return A;
+		}
+	}
+
+	/**
+	 * translates a direction string from a data log into a direction.
+	 * 
+	 * @param label - String representation of a direction WASD
+	 * @return the matching direction, or null if the label is not a direction.
+	 */
+	public static Direction fromLabel(String label) {
+		if (label == null || label.length() != 1) {
+			return null;
+		}
+		return fromLabel(label.charAt(0));
+	}
+
+	/**
+	 * translates a direction character into a direction.
+	 * 
+	 * @param label - character representation of a direction WASD
+	 * @return the matching direction, or null if the label is not a direction.
+	 */
+	public static Direction fromLabel(char label) {
+		switch (label) {
+		case 'W':
+			return W;
+		case 'A':
+			return A;
+		case 'S':
+			return S;
+		case 'D':
+			return D;
+		default:
+			return null;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * records which spaces of a board changed since they were last drawn, so the
+ * display only has to repaint those. When more spaces change than it can hold,
+ * or the whole board needs drawing, it stops recording and reports that
+ * everything is dirty until it is cleared.
+ * 
+ * @author jgcaf
+ *
+ */
+public class DirtyCells {
+
+	private final long[] spaces;
+	private int count = 0;
+	// a new board has never been drawn, so it starts fully dirty:
+	private boolean all = true;
+
+	/**
+	 * initializes the tracker.
+	 * 
+	 * @param capacity - the number of spaces recorded before falling back to a
+	 *                 full repaint
+	 */
+	public DirtyCells(int capacity) {
+		spaces = new long[capacity];
+	}
+
+	/**
+	 * records that a space changed.
+	 * 
+	 * @param space - the packed index of the space
+	 */
+	public void mark(long space) {
+		if (all) {
+			return;
+		}
+		if (count == spaces.length) {
+			all = true;
+			return;
+		}
+		spaces[count++] = space;
+	}
+
+	/**
+	 * records that the whole board needs to be drawn.
+	 */
+	public void markAll() {
+		all = true;
+	}
+
+	/**
+	 * @return true if the whole board needs to be drawn.
+	 */
+	public boolean isAllDirty() {
+		return all;
+	}
+
+	/**
+	 * @return true if nothing changed since the last clear.
+	 */
+	public boolean isClean() {
+		return !all && count == 0;
+	}
+
+	/**
+	 * @return the number of recorded spaces.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * gets a recorded space. A space that changed more than once may be recorded
+	 * more than once.
+	 * 
+	 * @param k - position in the record
+	 * @return the packed index of the space.
+	 */
+	public long get(int k) {
+		return spaces[k];
+	}
+
+	/**
+	 * forgets all recorded changes - called once they have been drawn.
+	 */
+	public void clear() {
+		count = 0;
+		all = false;
+	}
+}
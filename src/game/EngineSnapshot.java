@@ -0,0 +1,73 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * a copy of the state of a game at one tick: the snake's body, its head and
+ * direction, the food and the score. The board's spaces are not copied, they
+ * follow from the body and the food. Taken with {@link GameEngine#snapshot()}
+ * and put back with {@link GameEngine#restore(EngineSnapshot)}.
+ * 
+ * @author jgcaf
+ *
+ */
+public class EngineSnapshot {
+	// the body's spaces from the head to the tail:
+	final long[] body;
+	final int headI;
+	final int headJ;
+	final Direction direction;
+	final Direction previousDirection;
+	final boolean dead;
+	final boolean won;
+	final int score;
+	final int foodI;
+	final int foodJ;
+
+	EngineSnapshot(long[] body, int headI, int headJ, Direction direction, Direction previousDirection,
+			boolean dead, boolean won, int score, int foodI, int foodJ) {
+		this.body = body;
+		this.headI = headI;
+		this.headJ = headJ;
+		this.direction = direction;
+		this.previousDirection = previousDirection;
+		this.dead = dead;
+		this.won = won;
+		this.score = score;
+		this.foodI = foodI;
+		this.foodJ = foodJ;
+	}
+
+	/**
+	 * @return the length of the snake.
+	 */
+	public int getLength() {
+		return body.length;
+	}
+
+	/**
+	 * @return the score.
+	 */
+	public int getScore() {
+		return score;
+	}
+}
@@ -21,16 +21,16 @@
 
 package game;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Scanner;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -61,9 +61,9 @@ public class FileLogger {
 	private ArrayList<String> userSettings = new ArrayList<>();
 
 	// variables for loading save states:
-	private List<String> replayLines;
-	protected ArrayList<String> loadedFoodCoordinates = new ArrayList<>();
-	protected ArrayList<String> loadedDirections = new ArrayList<>();
+	private String replayPath;
+	protected ArrayList<String> loadedFoodCoordinates;
+	protected ArrayList<String> loadedDirections;
 
 	FileWriter logFileWriter;
 	PrintWriter printToLog;
@@ -112,14 +112,20 @@ public class FileLogger {
 	}
 
 	/**
-	 * loads all the data from the save file and sets them into user settings.  It also stores food coordinates and movement commands into their 
-	 * respective buffers.  
+	 * loads the settings from the top of a save file into the user settings, and
+	 * remembers the file so its run can be replayed with {@link #openReplay()}.
+	 * Only the settings are read here - the recorded moves are read as they are
+	 * played.
+	 * 
+	 * @param savePath - path to a text run log or a binary replay
 	 */
 	public void loadLogFile(String savePath) {
-		try {
-			replayLines = Files.readAllLines(Paths.get(savePath));
+		replayPath = savePath;
+		loadedFoodCoordinates = null;
+		loadedDirections = null;
+		try (ReplaySource replay = openReplay()) {
 			// gets the settings from the first line of the dataset:
-			String[] replaySettings = replayLines.remove(0).split("-");
+			String[] replaySettings = replay.getSettings();
 
 			// sets the user settings to be the same as the replay
 			if (replaySettings.length == 5) {
@@ -128,38 +134,60 @@ public class FileLogger {
 			for (int i = 0; i < replaySettings.length; i++) {
 				userSettings.add(replaySettings[i]);
 			}
+		} catch (IOException e) {
+			// log error:
+			Logger.getLogger(FileLogger.class.getName()).log(Level.SEVERE, null, e);
+		}
+	}
 
-			if (replayLines.size() > 1) {
-				// remove empty line between settings and recorded data if there is more than
-				// one extra line present - avoids an error if only settings are stored in
-				// the file.
-				replayLines.remove(0);
-				// load all the food coordinates and movement commands:
-				String coordiantes;
-				for (int i = 0; i < replayLines.size(); i++) {
-					loadedDirections.add(replayLines.get(i).split("_")[1]);
-					coordiantes = replayLines.get(i).split("_")[2];
-					// only add unique coordinates to the list:
-					if (!loadedFoodCoordinates.contains(coordiantes)) {
-						loadedFoodCoordinates.add(coordiantes);
-					}
+	/**
+	 * opens the save file last given to {@link #loadLogFile(String)} for reading
+	 * its recorded run one event at a time.
+	 * 
+	 * @return the recorded run.
+	 * @throws IOException - if the file can not be opened or is corrupted
+	 */
+	public ReplaySource openReplay() throws IOException {
+		if (replayPath.endsWith(ReplayConverter.binaryExtension)) {
+			return new BinaryReplayReader(new BufferedInputStream(new FileInputStream(replayPath)));
+		}
+		return new TextReplayReader(new BufferedReader(new FileReader(replayPath)));
+	}
 
+	/**
+	 * reads the whole recorded run of the loaded save file into the lists of food
+	 * coordinates and directions. Replays do not need this, they read the file as
+	 * they play it.
+	 */
+	private void loadRecordedRun() {
+		loadedFoodCoordinates = new ArrayList<>();
+		loadedDirections = new ArrayList<>();
+		try (ReplaySource replay = openReplay()) {
+			int event = replay.next();
+			while (event != ReplaySource.end) {
+				if (event == ReplaySource.move) {
+					loadedDirections.add(replay.getDirection().toString());
+				} else {
+					loadedFoodCoordinates.add(replay.getFoodI() + "," + replay.getFoodJ());
 				}
+				event = replay.next();
 			}
 		} catch (IOException e) {
 			// log error:
 			Logger.getLogger(FileLogger.class.getName()).log(Level.SEVERE, null, e);
-
 		}
-
 	}
 
 	/**
 	 * gets the recorded food coordinates from the save file.
 	 * 
-	 * @return - list of predefined food coordinates.
+	 * @return - list of predefined food coordinates, in the order they were
+	 *         placed.
 	 */
 	public ArrayList<String> getLoadedFoodCoordinates() {
+		if (loadedFoodCoordinates == null) {
+			loadRecordedRun();
+		}
 		return loadedFoodCoordinates;
 	}
 
@@ -169,18 +197,12 @@ public class FileLogger {
 	 * @return the list of directions from a saved file.
 	 */
 	public ArrayList<String> getLoadedDirections() {
+		if (loadedDirections == null) {
+			loadRecordedRun();
+		}
 		return loadedDirections;
 	}
 
-	/**
-	 * gets the data loaded from the save file.
-	 * 
-	 * @return the list of loaded replay data.
-	 */
-	public List<String> getReplayLines() {
-		return replayLines;
-	}
-
 	/**
 	 * prints the default settings once they are loaded
 	 */
@@ -422,25 +444,12 @@ public class FileLogger {
 	}
 
 	/**
-	 * saves the complete log of the user file.
+	 * gets the path of the file the next run is logged to.
 	 * 
-	 * @param filename     - the name of the file being saved
-	 * @param fileContents - the contents of the file being saved
+	 * @return the path to the data log file.
 	 */
-	public void logUserRun(String fileContents) {
-		// initialize the save file with one line containing user settings:
-		logUserSettings(logPath);
-		try {
-			// append the user recorded data to the file containing the one line user
-			// settings
-			PrintWriter save = new PrintWriter(new FileOutputStream(new File(logPath), true));
-			save.print(fileContents);
-			save.flush();
-			save.close();
-		} catch (FileNotFoundException e) {
-			// log error:
-			Logger.getLogger(FileLogger.class.getName()).log(Level.SEVERE, null, e);
-		}
+	public String getLogPath() {
+		return logPath;
 	}
 
 	/**
@@ -478,8 +487,18 @@ public class FileLogger {
 	 * @return the decoded board density setting.
 	 */
 	public int getBoardSize() {
+		return translateBoardSize(userSettings.get(0));
+	}
+
+	/**
+	 * translates a board density code into the number of rows and columns.
+	 * 
+	 * @param densityCode - the density code: 0-low, 1-medium, 2- high
+	 * @return the decoded board density setting.
+	 */
+	static public int translateBoardSize(String densityCode) {
 		int boardDensity;
-		switch (userSettings.get(0)) {
+		switch (densityCode) {
 		case ("0"): {
 			boardDensity = lowDensity;
 			break;
@@ -0,0 +1,50 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * scores a finished game for a genetic algorithm - higher is better.
+ * 
+ * @author jgcaf
+ *
+ */
+public interface Fitness {
+
+	/**
+	 * scores a game once it has ended.
+	 * 
+	 * @param engine - the finished game
+	 * @param ticks  - the number of ticks the game lasted
+	 * @return the fitness of the individual that played it.
+	 */
+	double evaluate(GameEngine engine, long ticks);
+
+	/**
+	 * the default fitness: the score, with the time survived breaking ties. The
+	 * survival part is always below 1, so more food is always fitter.
+	 * 
+	 * @return the fitness function.
+	 */
+	static Fitness scoreThenSurvival() {
+		return (engine, ticks) -> engine.getScore() + 1.0 - 1.0 / (ticks + 1);
+	}
+}
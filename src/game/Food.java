@@ -23,10 +23,10 @@
 package game;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 /**
- * the randomly generated food class.
+ * the randomly generated food class. Placement is done by the board's
+ * {@link GameEngine}, this class gives the gui access to it.
  * 
  * @author jgcaf
  *
@@ -34,11 +34,7 @@ import java.util.Random;
 public class Food {
 
 	private Board board;
-	private Cell location;
-	private Random r;
-	private int rows;
-	private int cols;
-	private ArrayList<String> loadedCoordinates = new ArrayList<>();
+	private GameEngine engine;
 
 	/**
 	 * initializes food in random locations on the playing board.
@@ -46,10 +42,8 @@ public class Food {
 	 * @param board - the playing board.
 	 */
 	public Food(Board board) {
-		r = new Random();
 		this.board = board;
-		rows = board.getRows();
-		cols = board.getCols();
+		this.engine = board.getEngine();
 		generateFood();
 	}
 
@@ -61,55 +55,26 @@ public class Food {
 	 *                          save file.
 	 */
 	public Food(Board board, ArrayList<String> loadedCoordinates) {
-		this.loadedCoordinates = loadedCoordinates;
 		this.board = board;
-		rows = board.getRows();
-		cols = board.getCols();
-		int[] coordiantes = parseIntFromLoadedCoordinates();
-		generateOnSpace(coordiantes[0], coordiantes[1]);
+		this.engine = board.getEngine();
+		engine.setLoadedCoordinates(loadedCoordinates);
+		engine.generateFromSave();
 	}
 
 	/**
-	 * parses the next set of coordinates from the save file into board coordinates
-	 * to generate a new food object. This was created for use in replay mode.
+	 * gets the space holding the food on the board
 	 * 
-	 * @return the integer row, column coordinates of the new food being generated.
+	 * @return the packed board index of the food's location.
 	 */
-	public int[] parseIntFromLoadedCoordinates() {
-		String nextCoord = this.loadedCoordinates.remove(0);
-		return new int[] { Integer.parseInt(nextCoord.split(",")[0]), Integer.parseInt(nextCoord.split(",")[1]) };
-	}
-
-	/**
-	 * gets the cell describing the location of the food on the board
-	 * 
-	 * @return the location of the food.
-	 */
-	public Cell getLocation() {
-		return location;
+	public long getLocation() {
+		return board.getSpace(engine.getFoodI(), engine.getFoodJ());
 	}
 
 	/**
 	 * randomly generates a new food object
 	 */
 	public void generateFood() {
-		Cell space = getRandomCell();
-		while (space.getLabel() == 'S') {
-			space = getRandomCell();
-		}
-		space.setLabel('F');
-		location = space;
-	}
-
-	/**
-	 * randomly gets a cell from the board:
-	 * 
-	 * @return a random board space.
-	 */
-	public Cell getRandomCell() {
-		int i = r.nextInt(cols + 1);
-		int j = r.nextInt(rows + 1);
-		return board.getSpace(i, j);
+		engine.generateFood();
 	}
 
 	/**
@@ -119,9 +84,7 @@ public class Food {
 	 * @param j - the column of the space being selected
 	 */
 	public void generateOnSpace(int i, int j) {
-		Cell space = board.getSpace(i, j);
-		space.setLabel('F');
-		location = space;
+		engine.generateOnSpace(i, j);
 	}
 
 	/**
@@ -129,10 +92,7 @@ public class Food {
 	 * created for replay mode only.
 	 */
 	public void generateFromSave() {
-		if (this.loadedCoordinates.size() > 0) {
-			int[] coordiantes = parseIntFromLoadedCoordinates();
-			generateOnSpace(coordiantes[0], coordiantes[1]);
-		}
+		engine.generateFromSave();
 	}
 
 	/**
@@ -140,6 +100,6 @@ public class Food {
 	 */
 	@Override
 	public String toString() {
-		return location.toString();
+		return Integer.toString(engine.getFoodI()) + "," + Integer.toString(engine.getFoodJ());
 	}
 }
@@ -0,0 +1,107 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * prints the memory used by the board layouts: the original grid of Cell
+ * objects, the packed byte per space store, and the chunked store holding a
+ * snake stretched along one row. Run with the board sizes to compare, ex: java
+ * game.FootprintReport 40 40 1000 1000 100000 100000
+ * 
+ * @author jgcaf
+ *
+ */
+public class FootprintReport {
+
+	public static void main(String[] args) {
+		int[] sizes = { 10, 10, 20, 20, 40, 40, 1000, 1000, 100000, 100000 };
+		if (args.length >= 2) {
+			sizes = new int[args.length - args.length % 2];
+			for (int k = 0; k < sizes.length; k++) {
+				sizes[k] = Integer.parseInt(args[k]);
+			}
+		}
+		System.out.println(String.format("%14s %16s %16s %16s %12s %12s", "board", "Cell[][] bytes", "packed bytes",
+				"chunked bytes", "Cell B/space", "packed B/space"));
+		for (int k = 0; k < sizes.length; k += 2) {
+			report(sizes[k], sizes[k + 1]);
+		}
+	}
+
+	private static void report(int cols, int rows) {
+		long spaces = (long) cols * rows;
+		String board = cols + "x" + rows;
+
+		// a snake stretched along one row, the area a long game has visited:
+		long before = usedHeap();
+		ChunkedCellStore chunked = new ChunkedCellStore(cols, rows);
+		for (int i = 0; i < Math.min(cols, 10000); i++) {
+			chunked.set((long) i * rows, CellStore.SNAKE);
+		}
+		long chunkedBytes = usedHeap() - before;
+		if (chunked.getChunkCount() == 0) {
+			throw new IllegalStateException();
+		}
+
+		if (spaces > GameEngine.packedLimit) {
+			// too large to lay out flat:
+			System.out.println(String.format("%14s %16s %16s %16d %12s %12s", board, "-", "-", chunkedBytes, "-", "-"));
+			return;
+		}
+
+		before = usedHeap();
+		Cell[][] grid = cellGrid(cols, rows);
+		long cellBytes = usedHeap() - before;
+
+		before = usedHeap();
+		PackedCellStore store = new PackedCellStore(cols, rows);
+		long packedBytes = usedHeap() - before;
+		// keep both flat layouts reachable until they have been measured:
+		if (grid.length != cols || store.getCols() != cols) {
+			throw new IllegalStateException();
+		}
+
+		System.out.println(String.format("%14s %16d %16d %16d %12.1f %12.1f", board, cellBytes, packedBytes,
+				chunkedBytes, (double) cellBytes / spaces, (double) packedBytes / spaces));
+	}
+
+	private static Cell[][] cellGrid(int cols, int rows) {
+		Cell[][] grid = new Cell[cols][rows];
+		for (int i = 0; i < cols; i++) {
+			for (int j = 0; j < rows; j++) {
+				grid[i][j] = new Cell(i * 10, j * 10, 10, 10, i, j, null, null, null);
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * @return the heap in use after asking for a garbage collection.
+	 */
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int k = 0; k < 3; k++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
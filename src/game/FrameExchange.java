@@ -0,0 +1,188 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * hands board frames from the simulation thread to the JavaFX thread without
+ * locks, with three frames: the writer fills its back frame and swaps it with
+ * the ready one, and the reader swaps its front frame with the ready one when a
+ * newer frame was published. Neither thread ever waits for the other, and the
+ * reader always gets the newest whole frame - frames published between two
+ * takes are skipped.
+ * <p>
+ * Only the spaces that changed are copied and drawn. The writer keeps the
+ * changes published since the reader last took a frame, and each frame lists
+ * them, so a frame also holds the changes of the frames the reader skipped.
+ * Ticks that change nothing publish nothing.
+ * 
+ * @author jgcaf
+ *
+ */
+public class FrameExchange {
+	// changed spaces listed before frames fall back to copying and drawing the
+	// whole board:
+	static public final int defaultCapacity = 256;
+
+	private final AtomicReference<BoardFrame> ready;
+	private final BoardFrame[] frames;
+	private final int capacity;
+	// sequence of the newest published frame, set after it is ready:
+	private volatile long published = 0;
+	// owned by the writer:
+	private BoardFrame back;
+	private long sequence = 0;
+	// the changes not known to be drawn, and the frames first showing them:
+	private final LongRing unseenSpaces;
+	private final LongRing unseenFrames;
+	// frames up to this one have to be drawn whole, the first frame included:
+	private long redrawUntil = 1;
+	private int lastScore;
+	private boolean lastDead;
+	private boolean lastWon;
+	// owned by the reader, and read by the writer:
+	private BoardFrame front;
+	private volatile long taken = 0;
+
+	/**
+	 * creates an exchange for frames of one board size.
+	 * 
+	 * @param cols - total number of columns
+	 * @param rows - total number of rows
+	 */
+	public FrameExchange(int cols, int rows) {
+		this(cols, rows, defaultCapacity);
+	}
+
+	/**
+	 * creates an exchange for frames of one board size.
+	 * 
+	 * @param cols     - total number of columns
+	 * @param rows     - total number of rows
+	 * @param capacity - the number of changed spaces listed before the whole
+	 *                 board is copied or drawn
+	 */
+	public FrameExchange(int cols, int rows, int capacity) {
+		this.capacity = capacity;
+		back = new BoardFrame(cols, rows, capacity);
+		ready = new AtomicReference<>(new BoardFrame(cols, rows, capacity));
+		front = new BoardFrame(cols, rows, capacity);
+		frames = new BoardFrame[] { back, ready.get(), front };
+		unseenSpaces = new LongRing(capacity);
+		unseenFrames = new LongRing(capacity);
+	}
+
+	/**
+	 * copies the game's changes into the back frame, and takes them from the
+	 * engine - only called by the writer. The frame is valid until the next
+	 * publish.
+	 * 
+	 * @param engine - the game
+	 * @return the back frame, ready to publish, or null if nothing changed since
+	 *         the last frame.
+	 */
+	public BoardFrame capture(GameEngine engine) {
+		DirtyCells changed = engine.getDirtyCells();
+		if (sequence > 0 && changed.isClean() && engine.getScore() == lastScore && engine.isDead() == lastDead
+				&& engine.isWon() == lastWon) {
+			return null;
+		}
+		long next = sequence + 1;
+		long seen = taken;
+		// every frame, even the one being drawn, falls behind by the changes:
+		for (BoardFrame frame : frames) {
+			frame.markStale(changed);
+		}
+		// forget the changes drawn by a frame the reader took:
+		while (unseenFrames.size() > 0 && unseenFrames.peekFirst() <= seen) {
+			unseenFrames.removeFirst();
+			unseenSpaces.removeFirst();
+		}
+		if (changed.isAllDirty() || unseenSpaces.size() + changed.size() > capacity) {
+			redrawUntil = next;
+			unseenFrames.clear();
+			unseenSpaces.clear();
+		} else {
+			for (int k = 0; k < changed.size(); k++) {
+				unseenSpaces.addLast(changed.get(k));
+				unseenFrames.addLast(next);
+			}
+		}
+		changed.clear();
+
+		back.capture(engine);
+		DirtyCells changes = back.getChanges();
+		changes.clear();
+		if (redrawUntil > seen) {
+			changes.markAll();
+		} else {
+			for (int k = 0; k < unseenSpaces.size(); k++) {
+				changes.mark(unseenSpaces.get(k));
+			}
+		}
+		lastScore = back.getScore();
+		lastDead = back.isDead();
+		lastWon = back.isWon();
+		return back;
+	}
+
+	/**
+	 * publishes the back frame, and takes the frame it replaces as the new back
+	 * frame. Only called by the writer, after {@link #capture(GameEngine)}.
+	 */
+	public void publish() {
+		back.setSequence(++sequence);
+		back = ready.getAndSet(back);
+		published = sequence;
+	}
+
+	/**
+	 * takes the newest frame, if one was published since the last take. The
+	 * frame belongs to the reader until the next take. Only called by the reader.
+	 * 
+	 * @return the newest frame, or null if there is no new frame.
+	 */
+	public BoardFrame take() {
+		if (published == taken) {
+			return null;
+		}
+		front = ready.getAndSet(front);
+		taken = front.getSequence();
+		return front;
+	}
+
+	/**
+	 * @return the sequence of the last frame the reader took, 0 before the
+	 *         first.
+	 */
+	public long getTaken() {
+		return taken;
+	}
+
+	/**
+	 * @return the number of frames published.
+	 */
+	public long getPublished() {
+		return published;
+	}
+}
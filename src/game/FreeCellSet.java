@@ -0,0 +1,117 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.SplittableRandom;
+
+/**
+ * the set of spaces the snake does not cover. The free spaces are kept packed
+ * at the front of an array, with a second array mapping each space to its
+ * position, so adding, removing and picking a uniformly random free space are
+ * all constant time no matter how full the board is.
+ * 
+ * @author jgcaf
+ *
+ */
+public class FreeCellSet {
+
+	private final int[] spaces;
+	// position of each space in the spaces array, or -1 if it is not free:
+	private final int[] positions;
+	private int count;
+
+	/**
+	 * initializes a set containing every space on the board.
+	 * 
+	 * @param capacity - the number of spaces on the board
+	 */
+	public FreeCellSet(int capacity) {
+		spaces = new int[capacity];
+		positions = new int[capacity];
+		for (int k = 0; k < capacity; k++) {
+			spaces[k] = k;
+			positions[k] = k;
+		}
+		count = capacity;
+	}
+
+	/**
+	 * adds a space to the set if it is not already there.
+	 * 
+	 * @param space - the packed index of the space
+	 */
+	public void add(int space) {
+		if (positions[space] >= 0) {
+			return;
+		}
+		spaces[count] = space;
+		positions[space] = count;
+		count++;
+	}
+
+	/**
+	 * removes a space from the set by moving the last free space into its slot.
+	 * 
+	 * @param space - the packed index of the space
+	 */
+	public void remove(int space) {
+		int position = positions[space];
+		if (position < 0) {
+			return;
+		}
+		count--;
+		int last = spaces[count];
+		spaces[position] = last;
+		positions[last] = position;
+		positions[space] = -1;
+	}
+
+	/**
+	 * checks if a space is free.
+	 * 
+	 * @param space - the packed index of the space
+	 * @return true if the space is in the set.
+	 */
+	public boolean contains(int space) {
+		return positions[space] >= 0;
+	}
+
+	/**
+	 * picks a free space, each one with the same probability.
+	 * 
+	 * @param r - the random generator
+	 * @return the packed index of the space, or -1 if no space is free.
+	 */
+	public int sample(SplittableRandom r) {
+		if (count == 0) {
+			return -1;
+		}
+		return spaces[r.nextInt(count)];
+	}
+
+	/**
+	 * @return the number of free spaces.
+	 */
+	public int size() {
+		return count;
+	}
+}
@@ -28,6 +28,7 @@ import java.util.Optional;
 import javafx.event.ActionEvent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.ColorPicker;
 import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
@@ -60,6 +61,9 @@ public class GUI {
 	MenuItem fast;
 	MenuItem normal;
 	MenuItem slow;
+	MenuItem custom;
+	CheckMenuItem showHud;
+	CheckMenuItem logTickTimes;
 
 	VBox buttonBox;
 	ColorPicker snakeColorPicker;
@@ -72,6 +76,7 @@ public class GUI {
 	Menu menu;
 	Menu boardDensity;
 	Menu gameSpeed;
+	Menu view;
 	Game game;
 	ScrollPane scroll;
 	VBox textBox;
@@ -93,6 +98,7 @@ public class GUI {
 		boardDensity = new Menu("Board");
 		menu = new Menu("File");
 		gameSpeed = new Menu("Speed");
+		view = new Menu("View");
 		this.game = game;
 
 		snakeColorPicker = new ColorPicker(Color.web(Main.settings.getUserSettings(2)));
@@ -130,6 +136,8 @@ public class GUI {
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
 		}
+		// stop the game, keeping the records of the unfinished run:
+		game.shutdown();
 		// do what you have to do
 		stage.close();
 	}
@@ -154,16 +162,12 @@ public class GUI {
 	 *                    board.
 	 */
 	private void resetGameSize(Game game, int rowsAndCols) {
-		// change game settings
-		game.nrows = rowsAndCols;
-		game.ncols = rowsAndCols;
-
 		// save settings
 		Main.settings.gatherUserSettings(rowsAndCols, game.frameLag, game.board.snakeRGB, game.board.boardRGB,
 				game.board.foodRGB);
 
-		// reset game
-		game.reset();
+		// reset game with the new size:
+		game.reset(rowsAndCols, rowsAndCols);
 
 		// refresh board with saved color settings:
 		changeColors(game);
@@ -180,6 +184,29 @@ public class GUI {
 
 	}
 
+	/**
+	 * asks the user for any game speed in moves per second.
+	 */
+	private void showSpeedDialog() {
+		TextInputDialog dialog = new TextInputDialog(
+				Long.toString(Math.round(game.scheduler.getTicksPerSecond())));
+		dialog.setTitle("Game Speed");
+		dialog.setHeaderText("Enter the number of moves per second:");
+		dialog.setContentText("Moves/sec:");
+
+		Optional<String> result = dialog.showAndWait();
+		result.ifPresent(text -> {
+			try {
+				double ticksPerSecond = Double.parseDouble(text.trim());
+				if (ticksPerSecond > 0) {
+					game.changeSpeed(ticksPerSecond);
+				}
+			} catch (NumberFormatException e) {
+				// keep the current speed if the input is not a number
+			}
+		});
+	}
+
 	/**
 	 * method for replaying game from a specified file.
 	 * 
@@ -191,7 +218,8 @@ public class GUI {
 		// create replay borderpane:
 		BorderPane replayRoot = new BorderPane();
 		// create replay scene:
-		Scene replaySc = new Scene(replayRoot, game.canvasX, game.canvasY, Color.rgb(10, 10, 10));
+		Scene replaySc = new Scene(replayRoot, game.canvasX, game.canvasY + Game.seekBarHeight,
+				Color.rgb(10, 10, 10));
 		// create replay stage:
 		Stage replayStage = new Stage();
 		replayStage.setTitle("Replay");
@@ -235,10 +263,21 @@ public class GUI {
 		fast.setOnAction(e -> changeGameSpeed(game, Main.fastFrameLag));
 		normal.setOnAction(e -> changeGameSpeed(game, Main.normalFrameLag));
 		slow.setOnAction(e -> changeGameSpeed(game, Main.slowFrameLag));
-		gameSpeed.getItems().addAll(fast, normal, slow);
+		custom = new MenuItem("Custom...");
+		custom.setOnAction(e -> showSpeedDialog());
+		gameSpeed.getItems().addAll(fast, normal, slow, custom);
+
+		// set performance overlay toggle:
+		showHud = new CheckMenuItem("Performance");
+		showHud.setOnAction(e -> game.hud.setShown(showHud.isSelected()));
+		view.getItems().add(showHud);
+		// time stamps in the run log, for finding where input lag comes from:
+		logTickTimes = new CheckMenuItem("Log Tick Times");
+		logTickTimes.setOnAction(e -> game.setLogTickTimes(logTickTimes.isSelected()));
+		menu.getItems().add(logTickTimes);
 
 		// assemble board density menu
-		menubar.getMenus().addAll(menu, boardDensity, gameSpeed);
+		menubar.getMenus().addAll(menu, boardDensity, gameSpeed, view);
 		buttonBox.getChildren().addAll(snakeColorPicker, boardColorPicker, foodColorPicker);
 
 		// assemble color pickers:
@@ -267,7 +306,8 @@ public class GUI {
 		saveButton.setOnAction(e -> showSaveDialog());
 
 		// add all components to the button box:
-		buttonBox.getChildren().addAll(snakePane, boardPane, foodPane, game.scoreValue, saveButton, label, loadButton);
+		buttonBox.getChildren().addAll(snakePane, boardPane, foodPane, game.scoreValue, game.hud.getLabel(), saveButton,
+				label, loadButton);
 
 		fileChooser = new FileChooser();
 
@@ -285,8 +325,9 @@ public class GUI {
 	public void launchFileChooser(Stage pStage) {
 		fileChooser.setInitialDirectory(new File(FileLogger.gameSaveDir));
 		File file = fileChooser.showOpenDialog(pStage);
-		// do not let user select the file unless it ends with "_recorded.txt"
-		while (!file.getName().contains("_recorded.txt")) {
+		// do not let user select the file unless it is a recorded run:
+		while (file != null && !file.getName().contains("_recorded.txt")
+				&& !file.getName().endsWith(ReplayConverter.binaryExtension)) {
 			file = fileChooser.showOpenDialog(pStage);
 		}
 
@@ -326,6 +367,7 @@ public class GUI {
 
 		// update path to log file:
 		Main.settings.setLogPath(saveFileName);
+		game.updateLogSettings();
 		result.ifPresent(name -> {
 			this.label.setText(saveFileName);
 		});
@@ -22,15 +22,19 @@
 
 package game;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javafx.animation.AnimationTimer;
 import javafx.event.EventHandler;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-import javafx.scene.input.KeyCode;
+import javafx.scene.control.Slider;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.paint.Color;
@@ -45,14 +49,15 @@ import javafx.stage.Stage;
  *
  */
 public class Game {
-	protected ArrayList<KeyCode> input;
-	protected ArrayList<KeyCode> replayInput;
-	protected ArrayList<KeyCode> loadedInputs;
+	protected InputRing input;
+	protected ReplayTimeline replayTimeline;
 	protected Canvas canvas;
 	protected Board board;
 	protected Food food;
 	protected Snake snake;
 	protected AnimationTimer replayTimer;
+	protected TickScheduler replayScheduler;
+	protected ReplaySpeed replaySpeed = ReplaySpeed.X1;
 	protected Board replayBoard;
 	protected Food replayFood;
 	protected Snake replaySnake;
@@ -60,28 +65,53 @@ public class Game {
 	protected GraphicsContext replayGc;
 	protected GraphicsContext gc;
 	protected AnimationTimer timer;
+	protected TickScheduler scheduler;
+	protected Simulation simulation;
+	protected FrameExchange frames;
 
 	protected int frameLag;
 	protected int nrows;
 	protected int ncols;
 	protected Label scoreValue = new Label();
-	protected String recordedData = "\n";
+	protected PerformanceHud hud = new PerformanceHud();
+	protected InputLatency latency = new InputLatency();
+	protected RunLogWriter runLog;
 	protected Text loggerText;
 	protected Label logLabel;
 
 	private int startRow;
 	private int startCol;
-	private Integer score;
+	private int score;
 	protected int canvasX;
 	protected int canvasY;
-	private int maxSnakeSize;
+	private long maxSnakeSize;
 	private boolean saved = false;
+	// whether the end of the game is shown under the data log:
+	private boolean endShown = false;
+	// whether the main game is paused for a replay:
+	private boolean replaying = false;
+	// whether run log records end with the time of their tick:
+	private volatile boolean logTickTimes = false;
+	// the run log's path and settings line, copied from the settings on the FX
+	// thread, which writes them, so the simulation thread reads only these:
+	private volatile String logPath;
+	private volatile String logSettings;
+	// time of the last frame of the main game, 0 while it is paused:
+	private long lastFrameNanos = 0;
+	// how much of the end of the run log is shown when the game is over:
+	static private final int logTailBytes = 8192;
+	// room under the replay for its seek bar:
+	static protected final int seekBarHeight = 30;
+	// at max replay speed, moves are run for this long in each frame:
+	static private final long maxSpeedFrameNanos = 8_000_000L;
+	// moves run between checks of the time at max replay speed:
+	static private final int maxSpeedBatch = 1024;
 
 	/**
 	 * initializes the game window's size, density, and speed
 	 * 
-	 * @param canvasX  -max number of rows in the game window
-	 * @param canvasY  - max number of columns in the game window
+	 * @param canvasX  - width of the game window in px
+	 * @param canvasY  - height of the game window in px
 	 * @param nrows    - number of rows in the game
 	 * @param ncols    - number of columns in the game
 	 * @param frameLag - the game speed - the number of frames before the display is
@@ -90,10 +120,10 @@ public class Game {
 	public Game(int canvasX, int canvasY, int nrows, int ncols, Integer frameLag) {
 		startRow = nrows / 2;
 		startCol = ncols / 2;
-		maxSnakeSize = nrows * ncols;
+		maxSnakeSize = (long) nrows * ncols;
 
 		// initialize command queue:
-		input = new ArrayList<KeyCode>();
+		input = new InputRing();
 		// this creates the playable canvas area
 		canvas = new Canvas(canvasX, canvasY);
 		// set copy of initial parameters:
@@ -102,21 +132,26 @@ public class Game {
 		this.nrows = nrows;
 		this.ncols = ncols;
 		this.frameLag = frameLag;
+		scheduler = new TickScheduler(TickScheduler.ticksPerSecond(frameLag));
 
 		// sizes:
 		// initialize all players:
 		board = new Board(this.nrows, this.ncols, canvasX, canvasY);
 		food = new Food(board);
 		snake = new Snake(board, food, startRow, startCol, maxSnakeSize, false);
+		// the game runs on its own thread, and hands the board over in frames:
+		frames = new FrameExchange(this.ncols, this.nrows);
+		simulation = new Simulation(scheduler, this::tick, this::publish);
 		// set games graphics
 		gc = canvas.getGraphicsContext2D();
 		score = 0;
 
+		scoreValue.setText("   " + score);
 		scoreValue.setTextFill(Color.SILVER);
 		scoreValue.setFont(new Font("Courier New", 30));
 
 		// initialize data logger:
-		loggerText = new Text(recordedData);
+		loggerText = new Text("");
 		logLabel = new Label("Data Log");
 
 		logLabel.setFont(new Font("Courier New", 30));
@@ -142,113 +177,214 @@ public class Game {
 		sc.setOnKeyPressed(new EventHandler<KeyEvent>() {
 			@Override
 			public void handle(KeyEvent e) {
-				KeyCode code = e.getCode();
-				// do not add duplicate codes - only need one key code to change directions.
-				if (!input.contains(code))
-					input.add(code);
+				Direction direction = Snake.translateKeyCode(e.getCode());
+				// only WASD keys move the snake:
+				if (direction != null) {
+					input.offer(direction, System.nanoTime());
+				}
 			}
 		});
 
 		// initialize timer with default settings:
 		timer = new AnimationTimer() {
 
-			int frames = 0;
-
 			@Override
 			public void handle(long currentNanoTime) {
-				// only move the snake once every number of frames:
-				if (frames % frameLag == 0) {
-					if (input.size() > 0) {
-						while (input.size() > 0) {
-							snake.update(input.remove(0));
-							updateLogString();
-						}
-					} else {
-						snake.update();
-						updateLogString();
-					}
-					// update the score:
-					score = board.getScore();
-					scoreValue.setText("   " + score.toString());
-					if(snake.isDead()) {
-						loggerText.setText(recordedData);
-					}
-
+				// every frame is counted, also those with no new board to draw:
+				Metrics.global.recordFrame(lastFrameNanos == 0 ? 0 : currentNanoTime - lastFrameNanos);
+				lastFrameNanos = currentNanoTime;
+				// draw the newest frame of the simulation, if it moved on:
+				BoardFrame frame = frames.take();
+				if (frame != null) {
+					long start = System.nanoTime();
+					board.display(gc, frame);
+					long drawn = System.nanoTime();
+					Metrics.global.recordDisplay(drawn - start);
+					latency.shown(frame, drawn);
+					showScore(frame);
 				}
-				board.display(gc);
-
-				frames++;
+				showFailure();
+				hud.update(currentNanoTime);
 			}
 
 		};
-		// start timer:
+		// start the game and its display:
+		updateLogSettings();
+		simulation.start();
 		timer.start();
 	}
 
 	/**
-	 * updates the run log with more data.
+	 * moves the snake once, taking at most one waiting move from the input, so
+	 * keys pressed quickly one after another are spread over the next ticks. Runs
+	 * on the simulation thread.
 	 */
-	private void updateLogString() {
-		// only log movements if snake is not dead:
-		if (!snake.isDead()) {
-			recordedData = recordedData + score.toString() + "_" + snake.toString();
-		} else {
-			logLabel.setText("DEAD!");
-			if (!saved) {
-				// if the snake is dead and the game has not been saved, save all the
-				// recorded data
-				Main.settings.logUserRun(recordedData);
-				saved = true;
-			}
+	private void tick() {
+		long now = System.nanoTime();
+		Metrics.global.recordInputDepth(input.size());
+		Direction move = input.poll();
+		if (move != null) {
+			latency.applied(input.getLastTime(), now);
+		}
+		// the log records the score before the move:
+		int score = board.getScore();
+		snake.update(move);
+		updateLogString(score, now);
+	}
+
+	/**
+	 * copies the changes of the board into a frame for the JavaFX thread. Runs on
+	 * the simulation thread.
+	 */
+	private void publish() {
+		BoardFrame frame = frames.capture(board.getEngine());
+		if (frame == null) {
+			// an idle tick, e.g. after the snake died, has nothing to draw:
+			return;
 		}
+		// the moves drawn for the first time by this frame, or by a later one if
+		// it is skipped:
+		latency.attach(frame, frames.getPublished() + 1, frames.getTaken());
+		frames.publish();
 	}
 
 	/**
-	 * changes the frame rate of the game
+	 * shows the score of a frame, and the end of the run log once the game is
+	 * over.
 	 * 
-	 * @param inverseSpeed - the number of frames it takes to move the snake.
+	 * @param frame - the frame being displayed
 	 */
-	public void changeSpeed(Integer inverseSpeed) {
+	private void showScore(BoardFrame frame) {
+		// the label is only changed with the score, so a frame makes no strings:
+		if (frame.getScore() != score) {
+			score = frame.getScore();
+			scoreValue.setText("   " + score);
+		}
+		if ((frame.isDead() || frame.isWon()) && !endShown) {
+			logLabel.setText(frame.isDead() ? "DEAD!" : "YOU WIN!");
+			// the simulation closed the log before it published the frame:
+			if (runLog != null) {
+				loggerText.setText(RunLogWriter.readTail(runLog.getPath(), logTailBytes));
+			}
+			endShown = true;
+		}
+	}
 
-		// stop timer:
-		timer.stop();
+	/**
+	 * shows the error that stopped the simulation, if it stopped with one. The
+	 * game stays on its last frame until it is restarted.
+	 */
+	private void showFailure() {
+		RuntimeException failure = simulation.takeFailure();
+		if (failure != null) {
+			logLabel.setText("ERROR!");
+			loggerText.setText(failure.toString() + "\n\nRestart the game to play on.");
+		}
+	}
 
-		// update the class's frame rate variable.
-		this.frameLag = inverseSpeed;
+	/**
+	 * appends the last tick to the run log file. Runs on the simulation thread.
+	 * 
+	 * @param score     - the score before the tick
+	 * @param tickNanos - when the tick started
+	 */
+	private void updateLogString(int score, long tickNanos) {
+		// only log movements if snake is not dead, or the game is over:
+		if (!snake.isDead() && !saved) {
+			if (runLog == null) {
+				runLog = new RunLogWriter(logPath, logSettings, board.getEngine().getSeed());
+			} else {
+				// follow the save file if the player renamed it during the run:
+				runLog.moveTo(logPath);
+			}
+			if (logTickTimes) {
+				runLog.appendRecord(score, board.getEngine(), tickNanos);
+			} else {
+				runLog.appendRecord(score, board.getEngine());
+			}
+		}
+		if ((snake.isDead() || snake.isWon()) && !saved) {
+			// if the snake is dead and the game has not been saved, write out the
+			// rest of the recorded data, to be shown by the JavaFX thread
+			if (runLog != null) {
+				runLog.close();
+			}
+			saved = true;
+		}
+	}
 
-		// re initialize animation timer:
-		timer = new AnimationTimer() {
+	/**
+	 * stops logging the current run, before the game is reset. The simulation
+	 * must be stopped.
+	 */
+	private void closeRunLog() {
+		if (runLog != null) {
+			runLog.close();
+			runLog = null;
+		}
+		saved = false;
+		endShown = false;
+		logLabel.setText("Data Log");
+	}
 
-			int frames = 0;
+	/**
+	 * copies the run log's path and settings line for the simulation thread.
+	 * Runs on the FX thread, after either of them changed.
+	 */
+	protected void updateLogSettings() {
+		logSettings = Main.settings.convertUserSettingsToString();
+		logPath = Main.settings.getLogPath();
+	}
 
-			@Override
-			public void handle(long currentNanoTime) {
-				// only move the snake once every number of frames:
-				if (frames % frameLag == 0) {
-					if (input.size() > 0) {
-						while (input.size() > 0) {
-							snake.update(input.remove(0));
-							updateLogString();
-						}
-					} else {
-						snake.update();
-						updateLogString();
-					}
-					// update the score:
-					score = board.getScore();
-					if(snake.isDead()) {
-						loggerText.setText(recordedData);
-					}
-					scoreValue.setText("   " + score.toString());
-				}
-				board.display(gc);
+	/**
+	 * stops the game and its display, and keeps the records of an unfinished
+	 * run, before the application quits.
+	 */
+	public void shutdown() {
+		simulation.stop();
+		if (timer != null) {
+			timer.stop();
+		}
+		if (runLog != null) {
+			runLog.close();
+		}
+	}
 
-				frames++;
-			}
+	/**
+	 * changes the speed of the game to one of the frame lag presets.
+	 * 
+	 * @param inverseSpeed - the number of frames it took to move the snake on a
+	 *                     60Hz monitor.
+	 */
+	public void changeSpeed(Integer inverseSpeed) {
+		// update the class's frame rate variable, kept for saving the settings.
+		this.frameLag = inverseSpeed;
+		changeSpeed(TickScheduler.ticksPerSecond(inverseSpeed));
+	}
 
-		};
-		// restart timer:
-		timer.start();
+	/**
+	 * changes the speed of the game. The simulation is paused while the length of
+	 * a tick changes, and goes on at the new speed.
+	 * 
+	 * @param ticksPerSecond - the number of moves per second
+	 */
+	public void changeSpeed(double ticksPerSecond) {
+		boolean running = simulation.isRunning();
+		simulation.stop();
+		scheduler.setTicksPerSecond(ticksPerSecond);
+		if (running) {
+			simulation.start();
+		}
+	}
+
+	/**
+	 * sets whether the run log records when each tick started, for matching the
+	 * moves in the log with the input timings. Replays ignore the times.
+	 * 
+	 * @param logTickTimes - true to write the tick times
+	 */
+	public void setLogTickTimes(boolean logTickTimes) {
+		this.logTickTimes = logTickTimes;
 	}
 
 	/**
@@ -265,20 +401,42 @@ public class Game {
 	 * 
 	 * @return the current score.
 	 */
-	public Integer getScore() {
+	public int getScore() {
 		return score;
 	}
 
+	/**
+	 * gets the queue of moves for the next ticks. Keys pressed in the game window
+	 * go into it, and a bot can offer its moves the same way.
+	 * 
+	 * @return the input queue.
+	 */
+	public InputRing getInput() {
+		return input;
+	}
+
 	/**
 	 * resets the game.
 	 */
 	protected void reset() {
+		// the old game is finished with before it is replaced:
+		simulation.stop();
 		board = new Board(nrows, ncols, canvasX, canvasY);
 		food = new Food(board);
 		snake = new Snake(board, food, startRow, startCol, maxSnakeSize, false);
-		// reset display string if the game is reset:
-		changeSpeed(frameLag);
-		recordedData = "\n";
+		// keys pressed for the old game do not carry over:
+		input.clear();
+		frames = new FrameExchange(ncols, nrows);
+		latency.clear();
+		// the new game does not catch up on the old game's time:
+		scheduler.reset();
+		// start a new run log if the game is reset:
+		closeRunLog();
+		updateLogSettings();
+		// play the new game, also after a failure, unless a replay is showing:
+		if (timer != null && !replaying) {
+			simulation.start();
+		}
 	}
 
 	/**
@@ -288,37 +446,70 @@ public class Game {
 	 * @param ncols - new number of columns.
 	 */
 	protected void reset(int nrows, int ncols) {
-		board = new Board(nrows, ncols, canvasX, canvasY);
-		food = new Food(board);
-		snake = new Snake(board, food, startRow, startCol, maxSnakeSize, false);
-		// reset display string if the game is reset:
-		recordedData = "\n";
+		this.nrows = nrows;
+		this.ncols = ncols;
+		startRow = nrows / 2;
+		startCol = ncols / 2;
+		maxSnakeSize = (long) nrows * ncols;
+		reset();
 	}
 
 	/**
 	 * resets and replays saved games.
 	 */
 	protected void startReplay(BorderPane replayRoot, Stage replayStage, Scene replaySc) {
-
-		int boardSize = Main.settings.getBoardSize();
+		ReplaySource replay;
+		try {
+			// open the recorded run:
+			replay = Main.settings.openReplay();
+		} catch (IOException e) {
+			Logger.getLogger(Game.class.getName()).log(Level.SEVERE, null, e);
+			replayStage.close();
+			return;
+		}
 		// initialize replay objects:
-		replayBoard = new Board(boardSize, boardSize, canvasX, canvasY);
-		replayFood = new Food(replayBoard, Main.settings.getLoadedFoodCoordinates());
-		replaySnake = new Snake(replayBoard, replayFood, startRow, startCol, maxSnakeSize, true);
+		if (replay.hasSeed()) {
+			// set up the board the same way as a new game, so the food follows from
+			// the seed:
+			replayBoard = new Board(replay.getRows(), replay.getCols(), canvasX, canvasY, replay.getSeed());
+			replayFood = new Food(replayBoard);
+			replaySnake = new Snake(replayBoard, replayFood, replay.getStartI(), replay.getStartJ(),
+					(long) replay.getRows() * replay.getCols(), false);
+		} else {
+			replayBoard = new Board(replay.getRows(), replay.getCols(), canvasX, canvasY);
+			replayFood = new Food(replayBoard, new ArrayList<String>());
+			replaySnake = new Snake(replayBoard, replayFood, replay.getStartI(), replay.getStartJ(),
+					(long) replay.getRows() * replay.getCols(), true);
+		}
 
 		// add colors:
 		replayBoard.changeColors(Color.web(Main.settings.getUserSettings(3)),
 				Color.web(Main.settings.getUserSettings(2)), Color.web(Main.settings.getUserSettings(4)));
 
-		// load movement commands:
-		loadedInputs = new ArrayList<>();
-		ArrayList<String> directions = Main.settings.getLoadedDirections();
-		// convert them into keycodes:
-		for (int i = 0; i < directions.size(); i++) {
-			loadedInputs.add(FileLogger.translateDirections((directions.get(i))));
+		try {
+			// the run is read as it plays, keeping keyframes for seeking back:
+			ReplayLoadEvent event = new ReplayLoadEvent();
+			event.begin();
+			long start = System.nanoTime();
+			replayTimeline = new ReplayTimeline(replayBoard.getEngine(), replay);
+			Metrics.global.recordReplayParse(System.nanoTime() - start);
+			if (event.shouldCommit()) {
+				event.cols = replay.getCols();
+				event.rows = replay.getRows();
+				event.seeded = replay.hasSeed();
+				event.commit();
+			}
+		} catch (IOException e) {
+			Logger.getLogger(Game.class.getName()).log(Level.SEVERE, null, e);
+			// the timeline did not take the run, so it is closed here:
+			try {
+				replay.close();
+			} catch (IOException closing) {
+				Logger.getLogger(Game.class.getName()).log(Level.SEVERE, null, closing);
+			}
+			replayStage.close();
+			return;
 		}
-		// create new replay input list:
-		replayInput = new ArrayList<KeyCode>();
 		// create replay graphics content:
 		replayCanvas = new Canvas(canvasX, canvasY);
 		replayGc = replayCanvas.getGraphicsContext2D();
@@ -327,42 +518,121 @@ public class Game {
 	}
 
 	/**
-	 * sets up game clock to use loaded commands rather than user keyboard
+	 * sets up game clock to use loaded commands rather than user keyboard. The
+	 * seek bar under the replay moves the replay to any tick, and the main game
+	 * continues once the replay window is closed.
 	 * 
-	 * @param inverseSpeed - the new frame lag of the game.
+	 * @param replayRoot  - border pane of the replay window
+	 * @param replayStage - the replay window
+	 * @param replaySc    - the replay scene
 	 */
 	public void startReplayTimer(BorderPane replayRoot, Stage replayStage, Scene replaySc) {
 		// reload log's frame rate, and start new replay timer with it:
 		replayRoot.setCenter(replayCanvas);
-		// pause main game timer:
+		Slider seekBar = new Slider(0, replayTimeline.getLength(), 0);
+		seekBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+			// the timer also moves the bar, only seek if the user moved it:
+			if (newValue.intValue() != replayTimeline.getTick()) {
+				replayTimeline.seek(newValue.intValue());
+			}
+		});
+		ComboBox<ReplaySpeed> speedBox = new ComboBox<>();
+		speedBox.getItems().addAll(ReplaySpeed.values());
+		speedBox.setValue(replaySpeed);
+		speedBox.setOnAction(e -> changeReplaySpeed(speedBox.getValue()));
+		// shows why the run stopped, if it could not be read to its end:
+		Label replayError = new Label();
+		replayError.setTextFill(Color.RED);
+		BorderPane controls = new BorderPane();
+		controls.setTop(replayError);
+		controls.setCenter(seekBar);
+		controls.setRight(speedBox);
+		replayRoot.setBottom(controls);
+		// pause the main game and its timer:
+		replaying = true;
+		simulation.stop();
 		timer.stop();
 		// initialize replay timer:
+		// play the replay at a multiple of the game's speed:
+		replayScheduler = new TickScheduler(scheduler.getTicksPerSecond());
+		changeReplaySpeed(replaySpeed);
 		replayTimer = new AnimationTimer() {
 
-			int frames = 0;
-
 			@Override
 			public void handle(long currentNanoTime) {
-				// only move the snake once every number of frames:
-
-				if (frames % frameLag == 0) {
-					if (loadedInputs.size() == 0) {
-						// at the end of the replay, close window
-						replayStage.close();
-						// restart main game timer
-						timer.start();
-						// stop replay timer:
-						replayTimer.stop();
+				if (seekBar.isValueChanging()) {
+					// hold still while the bar is dragged, without catching up after:
+					replayScheduler.reset();
+				} else {
+					if (replaySpeed.isUnlimited()) {
+						runReplayFor(maxSpeedFrameNanos);
 					} else {
-						// otherwise, pull a movement command off the saved list of commands:
-						replaySnake.update(loadedInputs.remove(0));
+						// many moves may be due each frame, but only the last one is drawn:
+						int due = replayScheduler.advance(currentNanoTime);
+						for (int k = 0; k < due; k++) {
+							if (!replayTimeline.tick()) {
+								// stay on the last move until the bar is moved back:
+								break;
+							}
+						}
+					}
+					// the bar reaches as far as the run has been read, and is
+					// stretched before it is moved, so the move is not cut short:
+					if (seekBar.getMax() != replayTimeline.getLength()) {
+						seekBar.setMax(replayTimeline.getLength());
 					}
+					seekBar.setValue(replayTimeline.getTick());
+				}
+				if (replayTimeline.getFailure() != null && replayError.getText().isEmpty()) {
+					replayError.setText("ERROR! The replay ends here: " + replayTimeline.getFailure().getMessage());
 				}
 				replayBoard.display(replayGc);
-				frames++;
 			}
 		};
+		replayStage.setOnHidden(e -> {
+			// stop replay timer, and stop reading the run if it was closed early:
+			replayTimer.stop();
+			replayTimeline.close();
+			// restart main game timer, without catching up the replay's time
+			scheduler.reset();
+			lastFrameNanos = 0;
+			replaying = false;
+			simulation.start();
+			timer.start();
+		});
 		replayTimer.start();
 	}
 
+	/**
+	 * changes the speed of the replay, also while it is playing.
+	 * 
+	 * @param speed - the new replay speed
+	 */
+	public void changeReplaySpeed(ReplaySpeed speed) {
+		replaySpeed = speed;
+		if (!speed.isUnlimited()) {
+			replayScheduler.setTicksPerSecond(scheduler.getTicksPerSecond() * speed.getMultiplier());
+			// let frames catch up the same share of the moves at every speed:
+			replayScheduler.setMaxCatchUpTicks(TickScheduler.defaultMaxCatchUpTicks * speed.getMultiplier());
+		}
+		// start counting the new speed from the next frame:
+		replayScheduler.reset();
+	}
+
+	/**
+	 * plays the replay as fast as possible for a while.
+	 * 
+	 * @param budgetNanos - how long to play for
+	 */
+	private void runReplayFor(long budgetNanos) {
+		long start = System.nanoTime();
+		do {
+			for (int k = 0; k < maxSpeedBatch; k++) {
+				if (!replayTimeline.tick()) {
+					return;
+				}
+			}
+		} while (System.nanoTime() - start < budgetNanos);
+	}
+
 }
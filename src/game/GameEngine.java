@@ -0,0 +1,682 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import jdk.jfr.EventType;
+
+/**
+ * the headless snake simulation. It owns the board spaces, the snake's body and
+ * the food, and runs the same rules as the displayed game without touching
+ * JavaFX, so it can be stepped as fast as the cpu allows for batch runs and bot
+ * training. {@link Board}, {@link Snake} and {@link Food} wrap one engine for the
+ * gui.
+ * 
+ * All randomness comes from one seeded generator, so a game is fully
+ * determined by its seed and its moves.
+ * 
+ * @author jgcaf
+ *
+ */
+public class GameEngine {
+	static public final char EMPTY = 'N';
+	static public final char SNAKE = 'S';
+	static public final char FOOD = 'F';
+	// the largest board kept in one flat array, with a set of free spaces:
+	static public final long packedLimit = 1L << 22;
+	static private final EventType foodSpawnEvents = EventType.getEventType(FoodSpawnEvent.class);
+
+	private final int cols;
+	private final int rows;
+	private CellStore store;
+	// spaces changed since the board was last drawn:
+	private DirtyCells dirty = new DirtyCells(64);
+	// spaces the snake does not cover, for placing food - null on boards too
+	// large to list every space:
+	private FreeCellSet free;
+
+	// packed indices of the spaces the snake covers, the head is at the front:
+	private LongRing body = new LongRing(16);
+	private int headI;
+	private int headJ;
+	private Direction direction = Direction.W;
+	private Direction previousDirection = Direction.S;
+	private boolean dead = false;
+	private boolean won = false;
+	private long maxSize;
+	private int score = 0;
+
+	private int foodI = -1;
+	private int foodJ = -1;
+	private long seed;
+	private SplittableRandom r;
+	private boolean replayMode = false;
+	// packed indices of the food loaded from a save file, in order:
+	private LongRing loadedFood = new LongRing(16);
+	// spaces drawn that were not free, while placing the last food:
+	private int foodRetries = 0;
+
+	/**
+	 * initializes an empty board with randomly generated food, from a new seed.
+	 * 
+	 * @param cols - total number of columns
+	 * @param rows - total number of rows
+	 */
+	public GameEngine(int cols, int rows) {
+		this(cols, rows, newSeed());
+	}
+
+	/**
+	 * initializes an empty board that draws food locations from a seed.
+	 * 
+	 * @param cols - total number of columns
+	 * @param rows - total number of rows
+	 * @param seed - the seed used for placing food
+	 */
+	public GameEngine(int cols, int rows, long seed) {
+		this(newStore(cols, rows), seed);
+	}
+
+	/**
+	 * creates the storage for a board: one flat array for boards up to
+	 * {@link #packedLimit} spaces, and lazily allocated tiles for larger ones.
+	 * 
+	 * @param cols - total number of columns
+	 * @param rows - total number of rows
+	 * @return an empty cell store.
+	 */
+	static public CellStore newStore(int cols, int rows) {
+		if ((long) cols * rows <= packedLimit) {
+			return new PackedCellStore(cols, rows);
+		}
+		return new ChunkedCellStore(cols, rows);
+	}
+
+	/**
+	 * initializes the game on an existing, empty cell store.
+	 * 
+	 * @param store - storage for the state of the board's spaces
+	 * @param seed  - the seed used for placing food
+	 */
+	public GameEngine(CellStore store, long seed) {
+		this.store = store;
+		this.cols = store.getCols();
+		this.rows = store.getRows();
+		this.seed = seed;
+		this.r = new SplittableRandom(seed);
+		this.maxSize = (long) cols * rows;
+		if (maxSize <= packedLimit) {
+			this.free = new FreeCellSet((int) maxSize);
+		}
+	}
+
+	/**
+	 * places the first food and the snake on the board, in the same order as the
+	 * displayed game, so a headless run with the same seed and moves plays the
+	 * same game.
+	 * 
+	 * @param startI - starting column of the snake head
+	 * @param startJ - starting row of the snake head
+	 */
+	public void start(int startI, int startJ) {
+		nextFood();
+		placeSnake(startI, startJ, (long) cols * rows);
+	}
+
+	/**
+	 * places the snake's head on the board.
+	 * 
+	 * @param startI  - starting column of the snake head
+	 * @param startJ  - starting row of the snake head
+	 * @param maxSize - max size of snake
+	 */
+	public void placeSnake(int startI, int startJ, long maxSize) {
+		headI = wrapI(startI);
+		headJ = wrapJ(startJ);
+		body.addFirst(index(headI, headJ));
+		set(body.peekFirst(), CellStore.SNAKE);
+		this.maxSize = maxSize;
+		// the first food is placed before the snake, so it may be under the head:
+		if (!replayMode && headI == foodI && headJ == foodJ) {
+			generateFood();
+		}
+	}
+
+	/**
+	 * sets the food coordinates loaded from a save file, and switches the engine
+	 * to replay mode so all new food is taken from them.
+	 * 
+	 * @param loadedCoordinates - the "i,j" food coordinates in the order they
+	 *                          appeared.
+	 */
+	public void setLoadedCoordinates(ArrayList<String> loadedCoordinates) {
+		loadedFood.clear();
+		for (int k = 0; k < loadedCoordinates.size(); k++) {
+			String[] coordinate = loadedCoordinates.get(k).split(",");
+			loadedFood.addLast(getSpace(Integer.parseInt(coordinate[0]), Integer.parseInt(coordinate[1])));
+		}
+		this.replayMode = true;
+	}
+
+	/**
+	 * sets whether new food is taken from the loaded coordinates or generated
+	 * randomly.
+	 * 
+	 * @param replayMode - true to use the loaded coordinates.
+	 */
+	public void setReplayMode(boolean replayMode) {
+		this.replayMode = replayMode;
+	}
+
+	/**
+	 * advances the game by one tick, turning first if the direction is allowed.
+	 * 
+	 * @param newDirection - the requested direction, or null to keep going
+	 *                     straight.
+	 */
+	public void step(Direction newDirection) {
+		// only change direction if it is not opposite the current direction
+		// prevents snake from reversing over itself:
+		if (newDirection != null && newDirection != previousDirection) {
+			this.direction = newDirection;
+		}
+		step();
+	}
+
+	/**
+	 * advances the game by one tick in the current direction.
+	 */
+	public void step() {
+		move();
+		previousDirection = direction.opposite();
+	}
+
+	/**
+	 * advances the game by one tick and keeps the snake's tail, so it grows
+	 * without eating - for growing a snake to a length in benchmarks and tests.
+	 * Food on the space ahead is eaten as in a normal tick, so the board keeps
+	 * its one food.
+	 * 
+	 * @param newDirection - the requested direction, or null to keep going
+	 *                     straight.
+	 */
+	public void extend(Direction newDirection) {
+		if (newDirection != null && newDirection != previousDirection) {
+			this.direction = newDirection;
+		}
+		if (!dead & body.size() < maxSize) {
+			int i = wrapI(headI + direction.getDi());
+			int j = wrapJ(headJ + direction.getDj());
+			long space = index(i, j);
+			if (store.get(space) == CellStore.EMPTY) {
+				pushHead(i, j, space);
+			} else {
+				slither(i, j);
+			}
+		}
+		previousDirection = direction.opposite();
+	}
+
+	/**
+	 * moves the snake's head one space in its current direction.
+	 */
+	private void move() {
+		// only move if snake is not dead:
+		if (!dead & body.size() < maxSize) {
+			slither(headI + direction.getDi(), headJ + direction.getDj());
+		}
+	}
+
+	/**
+	 * method for handling the snake's movement
+	 * 
+	 * @param i - the column of the space being moved to
+	 * @param j - the row of the space being moved to.
+	 */
+	private void slither(int i, int j) {
+		i = wrapI(i);
+		j = wrapJ(j);
+		long space = index(i, j);
+		byte state = store.get(space);
+		if (state == CellStore.FOOD) {
+			// if a food space, grow the queue
+			pushHead(i, j, space);
+			nextFood();
+			score++;
+		} else if (state == CellStore.SNAKE) {
+			// stop moving if dead.
+			dead = true;
+		} else {
+			// add space to front of queue, and remove the last one:
+			pushHead(i, j, space);
+			set(body.removeLast(), CellStore.EMPTY);
+		}
+	}
+
+	/**
+	 * moves the head onto a new space.
+	 * 
+	 * @param i     - wrapped column of the space
+	 * @param j     - wrapped row of the space
+	 * @param space - packed index of the space
+	 */
+	private void pushHead(int i, int j, long space) {
+		body.addFirst(space);
+		set(space, CellStore.SNAKE);
+		headI = i;
+		headJ = j;
+	}
+
+	/**
+	 * places the next food, either randomly or from the loaded coordinates.
+	 */
+	public void nextFood() {
+		if (!replayMode) {
+			generateFood();
+		} else {
+			generateFromSave();
+		}
+	}
+
+	/**
+	 * randomly generates new food on a space the snake does not occupy, each one
+	 * with the same probability. If the snake covers the whole board, the game is
+	 * won and no food is placed.
+	 */
+	public void generateFood() {
+		// only make the event while a recording wants it, so eating does not
+		// allocate:
+		if (!foodSpawnEvents.isEnabled()) {
+			placeRandomFood();
+			return;
+		}
+		FoodSpawnEvent event = new FoodSpawnEvent();
+		event.begin();
+		placeRandomFood();
+		if (event.shouldCommit()) {
+			event.cols = cols;
+			event.rows = rows;
+			event.length = body.size();
+			event.occupancy = (double) body.size() / ((long) cols * rows);
+			event.retries = foodRetries;
+			event.won = won;
+			event.commit();
+		}
+	}
+
+	/**
+	 * places food on a random free space, or wins the game if there is none.
+	 */
+	private void placeRandomFood() {
+		long space;
+		if (free != null) {
+			space = free.sample(r);
+			foodRetries = 0;
+		} else {
+			space = sampleEmpty();
+		}
+		if (space < 0) {
+			won = true;
+		} else {
+			generateOnSpace((int) (space / rows), (int) (space % rows));
+		}
+	}
+
+	/**
+	 * draws random spaces until one is empty - for boards too large to keep a
+	 * set of free spaces. The snake can only cover a tiny part of such a board,
+	 * so this almost always takes a single draw.
+	 * 
+	 * @return the packed index of an empty space, or -1 if the snake covers the
+	 *         whole board.
+	 */
+	private long sampleEmpty() {
+		long spaces = (long) cols * rows;
+		if (body.size() >= spaces) {
+			foodRetries = 0;
+			return -1;
+		}
+		long space = r.nextLong(spaces);
+		foodRetries = 0;
+		while (store.get(space) != CellStore.EMPTY) {
+			space = r.nextLong(spaces);
+			foodRetries++;
+		}
+		return space;
+	}
+
+	/**
+	 * generates food on a specific space - for recreating logged runs.
+	 * 
+	 * @param i - the column of the space being selected
+	 * @param j - the row of the space being selected
+	 */
+	public void generateOnSpace(int i, int j) {
+		foodI = wrapI(i);
+		foodJ = wrapJ(j);
+		set(index(foodI, foodJ), CellStore.FOOD);
+	}
+
+	/**
+	 * generates the next food from the loaded list of food coordinates. If the
+	 * list has run out, no new food is placed.
+	 */
+	public void generateFromSave() {
+		if (loadedFood.size() > 0) {
+			long space = loadedFood.removeFirst();
+			generateOnSpace((int) (space / rows), (int) (space % rows));
+		}
+	}
+
+	/**
+	 * copies the state of the game, so it can be returned to later.
+	 * 
+	 * @return the snapshot.
+	 */
+	public EngineSnapshot snapshot() {
+		long[] spaces = new long[body.size()];
+		for (int k = 0; k < spaces.length; k++) {
+			spaces[k] = body.get(k);
+		}
+		return new EngineSnapshot(spaces, headI, headJ, direction, previousDirection, dead, won, score, foodI,
+				foodJ);
+	}
+
+	/**
+	 * puts the game back in the state of a snapshot taken from this engine. Only
+	 * the spaces of the current and the restored snake and food change, so the
+	 * display only repaints those.
+	 * 
+	 * @param snapshot - the state to return to
+	 */
+	public void restore(EngineSnapshot snapshot) {
+		// take the current snake and food off the board:
+		while (body.size() > 0) {
+			set(body.removeFirst(), CellStore.EMPTY);
+		}
+		clearFood();
+
+		for (int k = 0; k < snapshot.body.length; k++) {
+			body.addLast(snapshot.body[k]);
+			set(snapshot.body[k], CellStore.SNAKE);
+		}
+		headI = snapshot.headI;
+		headJ = snapshot.headJ;
+		direction = snapshot.direction;
+		previousDirection = snapshot.previousDirection;
+		dead = snapshot.dead;
+		won = snapshot.won;
+		score = snapshot.score;
+		foodI = snapshot.foodI;
+		foodJ = snapshot.foodJ;
+		// the last food may have been eaten without a new one being placed:
+		if (foodI >= 0 && store.get(index(foodI, foodJ)) != CellStore.SNAKE) {
+			set(index(foodI, foodJ), CellStore.FOOD);
+		}
+	}
+
+	/**
+	 * takes the current food off the board, if there is any.
+	 */
+	void clearFood() {
+		if (foodI >= 0) {
+			long space = index(foodI, foodJ);
+			if (store.get(space) == CellStore.FOOD) {
+				set(space, CellStore.EMPTY);
+			}
+			foodI = -1;
+			foodJ = -1;
+		}
+	}
+
+	/**
+	 * wraps a column index around the board.
+	 * 
+	 * @param i - the column index
+	 * @return the index within 0 - cols-1
+	 */
+	private int wrapI(int i) {
+		i = i % cols;
+		if (i < 0) {
+			i = cols + i;
+		}
+		return i;
+	}
+
+	/**
+	 * wraps a row index around the board.
+	 * 
+	 * @param j - the row index
+	 * @return the index within 0 - rows-1
+	 */
+	private int wrapJ(int j) {
+		j = j % rows;
+		if (j < 0) {
+			j = rows + j;
+		}
+		return j;
+	}
+
+	/**
+	 * gets the packed index of a space, wrapping the indices around the board.
+	 * 
+	 * @param i - column index
+	 * @param j - row index
+	 * @return the index of the space in the cell store, i * rows + j
+	 */
+	public long getSpace(int i, int j) {
+		return index(wrapI(i), wrapJ(j));
+	}
+
+	/**
+	 * changes the state of a space and records it for the display.
+	 * 
+	 * @param space - packed index of the space
+	 * @param state - the new state
+	 */
+	private void set(long space, byte state) {
+		store.set(space, state);
+		dirty.mark(space);
+		if (free == null) {
+			return;
+		}
+		if (state == CellStore.SNAKE) {
+			free.remove((int) space);
+		} else if (state == CellStore.EMPTY) {
+			free.add((int) space);
+		}
+	}
+
+	/**
+	 * packs already wrapped indices into a cell store index.
+	 * 
+	 * @param i - column index
+	 * @param j - row index
+	 * @return i * rows + j
+	 */
+	private long index(int i, int j) {
+		return (long) i * rows + j;
+	}
+
+	/**
+	 * gets the label of a space, wrapping the indices around the board.
+	 * 
+	 * @param i - column index
+	 * @param j - row index
+	 * @return 'N' for an empty space, 'S' for the snake and 'F' for food.
+	 */
+	public char getLabel(int i, int j) {
+		return getLabel(getSpace(i, j));
+	}
+
+	/**
+	 * gets the label of a space.
+	 * 
+	 * @param space - the packed index of the space
+	 * @return 'N' for an empty space, 'S' for the snake and 'F' for food.
+	 */
+	public char getLabel(long space) {
+		switch (store.get(space)) {
+		case CellStore.SNAKE:
+			return SNAKE;
+		case CellStore.FOOD:
+			return FOOD;
+		default:
+			return EMPTY;
+		}
+	}
+
+	/**
+	 * 
+	 * @return the seed the food locations are drawn from.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * draws a seed for a new game.
+	 * 
+	 * @return a seed that differs from run to run.
+	 */
+	static public long newSeed() {
+		return new SplittableRandom().nextLong();
+	}
+
+	/**
+	 * 
+	 * @return the storage holding the state of every space.
+	 */
+	public CellStore getStore() {
+		return store;
+	}
+
+	/**
+	 * 
+	 * @return the spaces that changed since the board was last drawn.
+	 */
+	public DirtyCells getDirtyCells() {
+		return dirty;
+	}
+
+	/**
+	 * 
+	 * @return the number of columns
+	 */
+	public int getCols() {
+		return cols;
+	}
+
+	/**
+	 * 
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * 
+	 * @return the score.
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * checks if the snake has died
+	 * 
+	 * @return true if the snake is dead, false otherwise.
+	 */
+	public boolean isDead() {
+		return dead;
+	}
+
+	/**
+	 * checks if the snake has filled the whole board.
+	 * 
+	 * @return true if there was no free space left to place food.
+	 */
+	public boolean isWon() {
+		return won;
+	}
+
+	/**
+	 * gets the direction of the snake
+	 * 
+	 * @return direction of the snake
+	 */
+	public Direction getDirection() {
+		return direction;
+	}
+
+	/**
+	 * @return the number of spaces the snake occupies.
+	 */
+	public int getLength() {
+		return body.size();
+	}
+
+	/**
+	 * @return the column of the snake's head.
+	 */
+	public int getHeadI() {
+		return headI;
+	}
+
+	/**
+	 * @return the row of the snake's head.
+	 */
+	public int getHeadJ() {
+		return headJ;
+	}
+
+	/**
+	 * @return the column of the snake's tail.
+	 */
+	public int getTailI() {
+		return (int) (body.peekLast() / rows);
+	}
+
+	/**
+	 * @return the row of the snake's tail.
+	 */
+	public int getTailJ() {
+		return (int) (body.peekLast() % rows);
+	}
+
+	/**
+	 * @return the column of the most recently placed food.
+	 */
+	public int getFoodI() {
+		return foodI;
+	}
+
+	/**
+	 * @return the row of the most recently placed food.
+	 */
+	public int getFoodJ() {
+		return foodJ;
+	}
+}
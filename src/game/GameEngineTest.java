@@ -0,0 +1,130 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the GameEngine class - runs the game rules without a display.
+ * 
+ * @author jgcaf
+ *
+ */
+class GameEngineTest {
+	GameEngine engine;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// 10 x 10 board with the snake in the middle and food placed from a list
+		engine = new GameEngine(10, 10);
+		ArrayList<String> food = new ArrayList<>();
+		food.add("5,3");
+		food.add("0,0");
+		engine.setLoadedCoordinates(food);
+		engine.generateFromSave();
+		engine.placeSnake(5, 5, 100);
+	}
+
+	/**
+	 * checks that the snake moves one space per step and wraps around the board.
+	 */
+	@Test
+	void snakeWrapsAroundBoard() {
+		engine.step(Direction.A);
+		for (int k = 0; k < 5; k++) {
+			engine.step();
+		}
+		assertEquals(9, engine.getHeadI());
+		assertEquals(5, engine.getHeadJ());
+		assertFalse(engine.isDead());
+	}
+
+	/**
+	 * checks that eating food grows the snake, increases the score and places the
+	 * next food.
+	 */
+	@Test
+	void eatingFoodGrowsSnake() {
+		engine.step(Direction.W);
+		engine.step(Direction.W);
+		assertEquals(1, engine.getScore());
+		assertEquals(2, engine.getLength());
+		assertEquals(GameEngine.SNAKE, engine.getLabel(5, 4));
+		assertEquals(GameEngine.FOOD, engine.getLabel(0, 0));
+	}
+
+	/**
+	 * checks that the snake cannot reverse over itself.
+	 */
+	@Test
+	void cannotReverseDirection() {
+		engine.step(Direction.W);
+		engine.step(Direction.S);
+		assertEquals(Direction.W, engine.getDirection());
+		assertFalse(engine.isDead());
+	}
+
+	/**
+	 * checks that running into its own body kills the snake.
+	 */
+	@Test
+	void runningIntoBodyKillsSnake() {
+		// grow to four spaces long by eating along a line of food:
+		ArrayList<String> food = new ArrayList<>();
+		food.add("5,2");
+		food.add("5,1");
+		food.add("9,9");
+		engine.setLoadedCoordinates(food);
+		engine.step(Direction.W);
+		engine.step(Direction.W);
+		engine.step(Direction.W);
+		engine.step(Direction.W);
+		assertEquals(4, engine.getLength());
+		// then turn back into the body:
+		engine.step(Direction.A);
+		engine.step(Direction.S);
+		engine.step(Direction.D);
+		assertTrue(engine.isDead());
+	}
+
+	/**
+	 * checks that food is never placed on the snake, and that filling the board
+	 * wins the game.
+	 */
+	@Test
+	void fillingBoardWinsGame() {
+		// a one column board only has one free space left for the food:
+		engine = new GameEngine(1, 2);
+		engine.start(0, 0);
+		assertEquals(GameEngine.FOOD, engine.getLabel(0, 1));
+		engine.step();
+		assertEquals(2, engine.getLength());
+		assertTrue(engine.isWon());
+		assertFalse(engine.isDead());
+	}
+}
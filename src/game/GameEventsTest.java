@@ -0,0 +1,86 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * test class for the flight recorder events of the game loop.
+ * 
+ * @author jgcaf
+ *
+ */
+class GameEventsTest {
+
+	/**
+	 * checks that a recording holds one tick event per move and the food spawns,
+	 * with the state of the game.
+	 */
+	@Test
+	void recordingHoldsTicksAndFood() throws Exception {
+		Path file = Files.createTempFile("game", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(TickEvent.class).withoutThreshold();
+			recording.enable(FoodSpawnEvent.class).withoutThreshold();
+			recording.start();
+
+			Board board = new Board(10, 10, 100, 100, 3L);
+			Food food = new Food(board);
+			Snake snake = new Snake(board, food, 5, 5, 100, false);
+			for (int k = 0; k < 20; k++) {
+				snake.update(Direction.W);
+			}
+
+			recording.stop();
+			recording.dump(file);
+		}
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.delete(file);
+
+		int ticks = 0;
+		int spawns = 0;
+		for (RecordedEvent event : events) {
+			String name = event.getEventType().getName();
+			if (name.equals("game.Tick")) {
+				ticks++;
+				assertEquals(10, event.getInt("cols"));
+				assertEquals(10, event.getInt("rows"));
+				assertEquals(event.getInt("length") / 100.0, event.getDouble("occupancy"), 1e-9);
+			} else if (name.equals("game.FoodSpawn")) {
+				spawns++;
+				assertEquals(0, event.getInt("retries"));
+			}
+		}
+		assertEquals(20, ticks);
+		assertTrue(spawns >= 1);
+	}
+}
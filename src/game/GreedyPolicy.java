@@ -0,0 +1,121 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * a simple policy that heads for the food along the shortest way around the
+ * board, and otherwise turns onto any space the snake does not cover. Some of
+ * its moves are random, so a population of them plays differently - it is
+ * meant as a baseline and as a workload for the {@link PopulationRunner}.
+ * 
+ * @author jgcaf
+ *
+ */
+public class GreedyPolicy implements Policy {
+	static private final Direction[] directions = Direction.values();
+
+	private final SplittableRandom random;
+	private final double wander;
+
+	/**
+	 * @param seed   - seed for the policy's random moves
+	 * @param wander - the chance of making a random safe move instead of a greedy
+	 *               one
+	 */
+	public GreedyPolicy(long seed, double wander) {
+		this.random = new SplittableRandom(seed);
+		this.wander = wander;
+	}
+
+	/**
+	 * creates a population of greedy policies that wander more or less.
+	 * 
+	 * @param n    - the number of individuals
+	 * @param seed - seed the individuals' seeds are drawn from
+	 * @return the population.
+	 */
+	public static List<Policy> population(int n, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		List<Policy> policies = new ArrayList<>(n);
+		for (int k = 0; k < n; k++) {
+			policies.add(new GreedyPolicy(random.nextLong(), random.nextDouble(0.5)));
+		}
+		return policies;
+	}
+
+	@Override
+	public Direction choose(GameEngine engine) {
+		if (engine.getFoodI() >= 0 && random.nextDouble() >= wander) {
+			Direction toward = toward(engine.getHeadI(), engine.getFoodI(), engine.getCols(), Direction.A, Direction.D);
+			if (toward == null || !isSafe(engine, toward)) {
+				toward = toward(engine.getHeadJ(), engine.getFoodJ(), engine.getRows(), Direction.W, Direction.S);
+			}
+			if (toward != null && isSafe(engine, toward)) {
+				return toward;
+			}
+		}
+		// any safe direction, starting from a random one:
+		int first = random.nextInt(directions.length);
+		for (int k = 0; k < directions.length; k++) {
+			Direction d = directions[(first + k) % directions.length];
+			if (isSafe(engine, d)) {
+				return d;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * gets the direction along one axis that reaches the target soonest, going
+	 * around the edge of the board if that is shorter.
+	 * 
+	 * @param from     - the head's index on the axis
+	 * @param to       - the food's index on the axis
+	 * @param size     - the board's size along the axis
+	 * @param decrease - the direction that lowers the index
+	 * @param increase - the direction that raises the index
+	 * @return the direction, or null if the head is already in line.
+	 */
+	private static Direction toward(int from, int to, int size, Direction decrease, Direction increase) {
+		int ahead = Math.floorMod(to - from, size);
+		if (ahead == 0) {
+			return null;
+		}
+		return ahead <= size - ahead ? increase : decrease;
+	}
+
+	/**
+	 * @param engine - the running game
+	 * @param d      - a possible move
+	 * @return true if the move does not turn back or run into the snake.
+	 */
+	private static boolean isSafe(GameEngine engine, Direction d) {
+		if (engine.getLength() > 1 && d == engine.getDirection().opposite()) {
+			return false;
+		}
+		return engine.getLabel(engine.getHeadI() + d.getDi(), engine.getHeadJ() + d.getDj()) != GameEngine.SNAKE;
+	}
+}
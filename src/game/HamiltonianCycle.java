@@ -0,0 +1,116 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * a fixed route that visits every space of a board with an even number of
+ * columns exactly once and returns to its start. Row 0 is the way back: the
+ * route runs down the even columns and up the odd ones between rows 1 and the
+ * last row, then back along row 0. A snake that follows it never runs into
+ * itself, so it is used to drive long runs in benchmarks.
+ * 
+ * @author jgcaf
+ *
+ */
+public class HamiltonianCycle {
+	// snakes start on the way up the second column, so the first move along the
+	// route is not a reversal:
+	static public final int startI = 1;
+
+	/**
+	 * gets the row snakes start on, at the bottom of the second column.
+	 * 
+	 * @param rows - total number of rows
+	 * @return the row of the start.
+	 */
+	public static int startJ(int rows) {
+		return rows - 1;
+	}
+
+	/**
+	 * places a snake at the start of the route and grows it along the route.
+	 * 
+	 * @param engine - a new game with an even number of columns
+	 * @param length - the length to grow the snake to
+	 */
+	public static void startSnake(GameEngine engine, int length) {
+		engine.placeSnake(startI, startJ(engine.getRows()), (long) engine.getCols() * engine.getRows());
+		grow(engine, length);
+	}
+
+	/**
+	 * places a snake at the start of the route on a board and grows it along the
+	 * route.
+	 * 
+	 * @param board      - a new board with an even number of columns
+	 * @param food       - object containing food
+	 * @param length     - the length to grow the snake to
+	 * @param replayMode - true if new food is taken from a loaded save file
+	 * @return the snake.
+	 */
+	public static Snake startSnake(Board board, Food food, int length, boolean replayMode) {
+		long maxSize = (long) board.getCols() * board.getRows();
+		Snake snake = new Snake(board, food, startI, startJ(board.getRows()), maxSize, replayMode);
+		grow(board.getEngine(), length);
+		return snake;
+	}
+
+	/**
+	 * grows a snake that is on the route by keeping its tail while it moves along
+	 * the route, so every length can be reached without the snake dying. No food
+	 * is placed, so the board keeps the food it had.
+	 * 
+	 * @param engine - the running game
+	 * @param length - the length to grow the snake to
+	 */
+	public static void grow(GameEngine engine, int length) {
+		while (engine.getLength() < length && !engine.isDead()) {
+			engine.extend(next(engine.getHeadI(), engine.getHeadJ(), engine.getCols(), engine.getRows()));
+		}
+	}
+
+	/**
+	 * gets the direction the route takes from a space.
+	 * 
+	 * @param i    - column of the space
+	 * @param j    - row of the space
+	 * @param cols - total number of columns, must be even
+	 * @param rows - total number of rows, must be at least 2
+	 * @return the direction to the next space on the route.
+	 */
+	public static Direction next(int i, int j, int cols, int rows) {
+		if (j == 0) {
+			// on the way back:
+			return i == 0 ? Direction.S : Direction.A;
+		}
+		if (i % 2 == 0) {
+			// down an even column, then across at the bottom:
+			return j < rows - 1 ? Direction.S : Direction.D;
+		}
+		// up an odd column, then across at the top, or onto the way back from the
+		// last column:
+		if (j > 1) {
+			return Direction.W;
+		}
+		return i == cols - 1 ? Direction.W : Direction.D;
+	}
+}
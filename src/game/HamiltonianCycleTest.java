@@ -0,0 +1,71 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the HamiltonianCycle class - grows snakes along the route.
+ * 
+ * @author jgcaf
+ *
+ */
+class HamiltonianCycleTest {
+
+	/**
+	 * checks that growing a snake on a game that places its own food leaves the
+	 * board with exactly one food.
+	 */
+	@Test
+	void startSnakeKeepsOneFood() {
+		GameEngine engine = new GameEngine(64, 64, 7L);
+		engine.nextFood();
+		HamiltonianCycle.startSnake(engine, 2100);
+		assertEquals(2100, engine.getLength());
+		assertFalse(engine.isDead());
+		assertEquals(1, countFood(engine));
+
+		Board board = new Board(64, 64, 640, 640, 7L);
+		Food food = new Food(board);
+		HamiltonianCycle.startSnake(board, food, 2100, false);
+		assertEquals(2100, board.getEngine().getLength());
+		assertEquals(1, countFood(board.getEngine()));
+	}
+
+	/**
+	 * @param engine - the game
+	 * @return the number of spaces holding food.
+	 */
+	private static int countFood(GameEngine engine) {
+		int count = 0;
+		long spaces = (long) engine.getCols() * engine.getRows();
+		for (long space = 0; space < spaces; space++) {
+			if (engine.getStore().get(space) == CellStore.FOOD) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
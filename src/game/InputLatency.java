@@ -0,0 +1,141 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * follows each move from the key press to the frame that first draws it. The
+ * simulation thread notes when the tick that applied a move started, and keeps
+ * the move in every frame it publishes until the drawing thread has taken a
+ * frame showing it - frames the drawing thread skips do not lose moves. The
+ * drawing thread records each move once, on the first frame it draws that
+ * shows it, into the input histograms of the metrics:
+ * <ul>
+ * <li>wait - from the key press to the tick, the time in the input queue and
+ * until the next tick</li>
+ * <li>display - from the tick to the drawn frame, the hand over and the
+ * drawing</li>
+ * <li>latency - from the key press to the drawn frame</li>
+ * </ul>
+ * 
+ * @author jgcaf
+ *
+ */
+public class InputLatency {
+	// the most moves waiting to be drawn - more only pile up while nothing is
+	// drawn, and the oldest are forgotten:
+	static public final int capacity = 64;
+
+	private final Metrics metrics;
+	// owned by the simulation thread, a ring of moves not known to be drawn:
+	private final long[] pressed = new long[capacity];
+	private final long[] applied = new long[capacity];
+	private final long[] firstFrame = new long[capacity];
+	private int head = 0;
+	private int count = 0;
+	// owned by the drawing thread:
+	private long lastShown = 0;
+
+	/**
+	 * creates a tracker recording into the global metrics.
+	 */
+	public InputLatency() {
+		this(Metrics.global);
+	}
+
+	/**
+	 * creates a tracker.
+	 * 
+	 * @param metrics - where the latencies are recorded
+	 */
+	public InputLatency(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * notes a move applied by a tick - called by the simulation thread.
+	 * 
+	 * @param pressedNanos - when the move was made, from System.nanoTime()
+	 * @param appliedNanos - when the tick started
+	 */
+	public void applied(long pressedNanos, long appliedNanos) {
+		if (count == capacity) {
+			head = (head + 1) % capacity;
+			count--;
+		}
+		int slot = (head + count) % capacity;
+		pressed[slot] = pressedNanos;
+		applied[slot] = appliedNanos;
+		// the move is first shown by the next frame published:
+		firstFrame[slot] = 0;
+		count++;
+	}
+
+	/**
+	 * adds the moves not yet drawn to a frame about to be published - called by
+	 * the simulation thread. Moves shown by a frame the drawing thread already
+	 * took are forgotten first.
+	 * 
+	 * @param frame    - the frame
+	 * @param sequence - the sequence the frame is published with
+	 * @param taken    - the sequence of the last frame the drawing thread took
+	 */
+	public void attach(BoardFrame frame, long sequence, long taken) {
+		while (count > 0 && firstFrame[head] != 0 && firstFrame[head] <= taken) {
+			head = (head + 1) % capacity;
+			count--;
+		}
+		for (int k = 0; k < count; k++) {
+			int slot = (head + k) % capacity;
+			if (firstFrame[slot] == 0) {
+				firstFrame[slot] = sequence;
+			}
+			frame.addInput(pressed[slot], applied[slot], firstFrame[slot]);
+		}
+	}
+
+	/**
+	 * records the moves a frame shows for the first time - called by the drawing
+	 * thread once the frame is drawn.
+	 * 
+	 * @param frame      - the frame
+	 * @param drawnNanos - when the frame was drawn
+	 */
+	public void shown(BoardFrame frame, long drawnNanos) {
+		for (int k = 0; k < frame.getInputCount(); k++) {
+			if (frame.getInputFrame(k) > lastShown) {
+				metrics.recordInput(drawnNanos - frame.getInputPressed(k),
+						frame.getInputApplied(k) - frame.getInputPressed(k), drawnNanos - frame.getInputApplied(k));
+			}
+		}
+		lastShown = frame.getSequence();
+	}
+
+	/**
+	 * forgets every move, when the game starts over with a new frame exchange.
+	 * Neither thread may be using the tracker.
+	 */
+	public void clear() {
+		head = 0;
+		count = 0;
+		lastShown = 0;
+	}
+}
@@ -0,0 +1,176 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the InputLatency class, and the tick times in the run log.
+ * 
+ * @author jgcaf
+ *
+ */
+class InputLatencyTest {
+
+	/**
+	 * checks that every move is recorded once, on the first frame drawn that
+	 * shows it, also when the frame it was first published in is skipped.
+	 */
+	@Test
+	void movesAreRecordedOnceWhenFramesAreSkipped() {
+		Metrics metrics = new Metrics();
+		InputLatency latency = new InputLatency(metrics);
+		FrameExchange frames = new FrameExchange(4, 4);
+
+		// two moves in the first frame, one in the second, and the reader only
+		// takes the second:
+		latency.applied(100, 1_000);
+		latency.applied(200, 1_000);
+		publish(latency, frames);
+		latency.applied(300, 2_000);
+		publish(latency, frames);
+		BoardFrame frame = frames.take();
+		assertEquals(2, frame.getSequence());
+		assertEquals(3, frame.getInputCount());
+		latency.shown(frame, 10_000);
+		assertEquals(3, metrics.getInputCount());
+		assertEquals(9_900, metrics.getInputLatencyMaxNanos());
+		assertEquals((9_900 + 9_800 + 9_700) / 3.0, metrics.getInputLatencyMeanNanos(), 1e-9);
+
+		// a frame published before the writer saw the take still holds them:
+		publish(latency, frames);
+		latency.shown(frames.take(), 20_000);
+		assertEquals(3, metrics.getInputCount());
+		// and once it did, they are forgotten:
+		publish(latency, frames);
+		frame = frames.take();
+		assertEquals(0, frame.getInputCount());
+		latency.shown(frame, 30_000);
+
+		latency.applied(30_000, 31_000);
+		publish(latency, frames);
+		latency.shown(frames.take(), 35_000);
+		assertEquals(4, metrics.getInputCount());
+		// percentiles are within a bucket of the waits 800 to 1700 and the
+		// displays 4000 to 9000:
+		assertEquals(1_700, metrics.getInputWaitP99Nanos(), 1_700 / 16.0);
+		assertEquals(9_000, metrics.getInputDisplayP99Nanos(), 9_000 / 16.0);
+	}
+
+	/**
+	 * checks that only the newest moves are kept while no frame is taken.
+	 */
+	@Test
+	void oldestMovesAreForgottenWhenFull() {
+		Metrics metrics = new Metrics();
+		InputLatency latency = new InputLatency(metrics);
+		FrameExchange frames = new FrameExchange(4, 4);
+		for (int k = 0; k < InputLatency.capacity + 10; k++) {
+			latency.applied(k, k);
+		}
+		publish(latency, frames);
+		BoardFrame frame = frames.take();
+		assertEquals(InputLatency.capacity, frame.getInputCount());
+		assertEquals(10, frame.getInputPressed(0));
+		latency.shown(frame, 1_000);
+		assertEquals(InputLatency.capacity, metrics.getInputCount());
+	}
+
+	/**
+	 * checks that a run logged with tick times replays the same as one without.
+	 */
+	@Test
+	void tickTimesDoNotChangeTheReplay() throws IOException {
+		Path plain = Files.createTempFile("plain", "_recorded.txt");
+		Path timed = Files.createTempFile("timed", "_recorded.txt");
+		try {
+			record(plain, false);
+			record(timed, true);
+			List<String> plainLines = Files.readAllLines(plain);
+			List<String> timedLines = Files.readAllLines(timed);
+			assertEquals(plainLines.size(), timedLines.size());
+			for (int k = 2; k < plainLines.size(); k++) {
+				assertTrue(timedLines.get(k).startsWith(plainLines.get(k) + "_"), timedLines.get(k));
+			}
+
+			try (TextReplayReader a = open(plain); TextReplayReader b = open(timed)) {
+				assertEquals(a.getSeed(), b.getSeed());
+				int event;
+				do {
+					event = a.next();
+					assertEquals(event, b.next());
+					if (event == ReplaySource.move) {
+						assertEquals(a.getDirection(), b.getDirection());
+					}
+				} while (event != ReplaySource.end);
+			}
+		} finally {
+			Files.deleteIfExists(plain);
+			Files.deleteIfExists(timed);
+		}
+	}
+
+	/**
+	 * publishes a frame the way the game does.
+	 */
+	private void publish(InputLatency latency, FrameExchange frames) {
+		// a new game has every space to draw, so the frame is published:
+		BoardFrame frame = frames.capture(new GameEngine(4, 4, 1));
+		latency.attach(frame, frames.getPublished() + 1, frames.getTaken());
+		frames.publish();
+	}
+
+	/**
+	 * logs a short seeded game.
+	 */
+	private void record(Path file, boolean timed) {
+		GameEngine engine = new GameEngine(10, 10, 42);
+		engine.start(5, 5);
+		Policy policy = new GreedyPolicy(42, 0.2);
+		RunLogWriter log = new RunLogWriter(file.toString(), "1-1-0xffffffff-0x1a4d4dff-0xccffffff", 42);
+		for (int t = 0; t < 200 && !engine.isDead(); t++) {
+			long now = System.nanoTime();
+			engine.step(policy.choose(engine));
+			if (!engine.isDead()) {
+				if (timed) {
+					log.appendRecord(engine.getScore(), engine, now);
+				} else {
+					log.appendRecord(engine.getScore(), engine);
+				}
+			}
+		}
+		log.close();
+	}
+
+	private TextReplayReader open(Path file) throws IOException {
+		return new TextReplayReader(new BufferedReader(new FileReader(file.toFile())));
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * a bounded queue of timestamped moves between one producer - the keyboard
+ * handler, a bot - and one consumer, the game's tick. Neither side locks: the
+ * producer only moves the tail and the consumer only moves the head, and each
+ * publishes its position with an ordered write, so the two can run on
+ * different threads. When the ring is full new moves are dropped.
+ * 
+ * @author jgcaf
+ *
+ */
+public class InputRing {
+	static private final Direction[] directions = Direction.values();
+	static public final int defaultCapacity = 16;
+
+	private final byte[] moves;
+	private final long[] times;
+	private final int mask;
+	// next position to read, written only by the consumer:
+	private final AtomicLong head = new AtomicLong();
+	// next position to write, written only by the producer:
+	private final AtomicLong tail = new AtomicLong();
+
+	// producer only - the last move offered, to drop repeats of a held key:
+	private Direction lastOffered;
+	// consumer only - when the last move taken was offered:
+	private long lastTime;
+
+	/**
+	 * creates a ring with the default capacity.
+	 */
+	public InputRing() {
+		this(defaultCapacity);
+	}
+
+	/**
+	 * creates a ring.
+	 * 
+	 * @param capacity - the most moves held, rounded up to a power of two
+	 */
+	public InputRing(int capacity) {
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		moves = new byte[size];
+		times = new long[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * adds a move - called by the producer only. A move that repeats the one
+	 * before it while that one is still waiting is dropped, like a held key.
+	 * 
+	 * @param direction - the move
+	 * @param timeNanos - when the move was made, from System.nanoTime()
+	 * @return false if the move was dropped.
+	 */
+	public boolean offer(Direction direction, long timeNanos) {
+		long t = tail.get();
+		long h = head.get();
+		if (t - h >= moves.length || (direction == lastOffered && t > h)) {
+			return false;
+		}
+		int slot = (int) t & mask;
+		moves[slot] = (byte) direction.ordinal();
+		times[slot] = timeNanos;
+		lastOffered = direction;
+		// publish the slot after it has been written:
+		tail.lazySet(t + 1);
+		return true;
+	}
+
+	/**
+	 * takes the oldest move - called by the consumer only.
+	 * 
+	 * @return the move, or null if there is none.
+	 */
+	public Direction poll() {
+		long h = head.get();
+		if (h == tail.get()) {
+			return null;
+		}
+		int slot = (int) h & mask;
+		Direction direction = directions[moves[slot]];
+		lastTime = times[slot];
+		// hand the slot back to the producer after it has been read:
+		head.lazySet(h + 1);
+		return direction;
+	}
+
+	/**
+	 * drops every waiting move - called by the consumer only.
+	 */
+	public void clear() {
+		head.lazySet(tail.get());
+	}
+
+	/**
+	 * @return when the last move taken by {@link #poll()} was offered.
+	 */
+	public long getLastTime() {
+		return lastTime;
+	}
+
+	/**
+	 * @return the number of waiting moves.
+	 */
+	public int size() {
+		return (int) (tail.get() - head.get());
+	}
+
+	/**
+	 * @return true if no moves are waiting.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @return the most moves the ring holds.
+	 */
+	public int getCapacity() {
+		return moves.length;
+	}
+}
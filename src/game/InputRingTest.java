@@ -0,0 +1,93 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the InputRing class.
+ * 
+ * @author jgcaf
+ *
+ */
+class InputRingTest {
+
+	/**
+	 * checks that moves come out in order with their times, and that a full ring
+	 * and a repeated move drop new moves.
+	 */
+	@Test
+	void keepsOrderAndDropsWhenFull() {
+		InputRing ring = new InputRing(4);
+		assertTrue(ring.offer(Direction.W, 1));
+		assertFalse(ring.offer(Direction.W, 2), "repeat of a waiting move was kept");
+		assertTrue(ring.offer(Direction.A, 3));
+		assertTrue(ring.offer(Direction.S, 4));
+		assertTrue(ring.offer(Direction.D, 5));
+		assertFalse(ring.offer(Direction.W, 6), "move was kept in a full ring");
+
+		assertEquals(Direction.W, ring.poll());
+		assertEquals(1, ring.getLastTime());
+		assertEquals(Direction.A, ring.poll());
+		assertEquals(Direction.S, ring.poll());
+		assertEquals(Direction.D, ring.poll());
+		assertEquals(5, ring.getLastTime());
+		assertNull(ring.poll());
+		// the same move again once the first one was taken:
+		assertTrue(ring.offer(Direction.D, 7));
+		assertEquals(Direction.D, ring.poll());
+	}
+
+	/**
+	 * passes moves from one thread to another and checks none are lost or
+	 * reordered.
+	 */
+	@Test
+	void passesMovesBetweenThreads() throws InterruptedException {
+		int count = 200_000;
+		InputRing ring = new InputRing(8);
+		Thread producer = new Thread(() -> {
+			for (int k = 0; k < count; k++) {
+				Direction next = Direction.values()[k % 4];
+				while (!ring.offer(next, k)) {
+					Thread.yield();
+				}
+			}
+		});
+		producer.start();
+		for (int k = 0; k < count; k++) {
+			Direction move = ring.poll();
+			while (move == null) {
+				Thread.yield();
+				move = ring.poll();
+			}
+			assertEquals(Direction.values()[k % 4], move);
+			assertEquals(k, ring.getLastTime());
+		}
+		producer.join();
+		assertTrue(ring.isEmpty());
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * counts durations in nanoseconds in logarithmic buckets, each power of two
+ * split into 16 linear steps, in the style of an HDR histogram. Any duration
+ * from 1ns to about 18 minutes is kept within about 6% of its value, in a fixed
+ * set of counters - recording never allocates, so it can stay on in every
+ * frame. Recording and reading may happen on different threads.
+ * 
+ * @author jgcaf
+ *
+ */
+public class LatencyHistogram {
+	static private final int subBits = 5;
+	static private final int subCount = 1 << subBits;
+	static private final int halfCount = subCount / 2;
+	// durations above this are counted in the last bucket:
+	static public final long maxValue = (1L << 40) - 1;
+	static private final int bucketCount = bucketOf(maxValue) + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(bucketCount);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * counts one duration.
+	 * 
+	 * @param nanos - the duration, negative values are counted as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.min(Math.max(nanos, 0), maxValue);
+		counts.incrementAndGet(bucketOf(value));
+		count.incrementAndGet();
+		total.addAndGet(value);
+		long previous = max.get();
+		while (value > previous && !max.compareAndSet(previous, value)) {
+			previous = max.get();
+		}
+	}
+
+	/**
+	 * finds the bucket of a duration. Values below 32 have a bucket each, above
+	 * that every doubling gets 16 buckets.
+	 * 
+	 * @param value - a duration from 0 to maxValue
+	 * @return the bucket index.
+	 */
+	static private int bucketOf(long value) {
+		int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - (subBits - 1));
+		return shift * halfCount + (int) (value >>> shift);
+	}
+
+	/**
+	 * gets the largest duration counted in a bucket.
+	 * 
+	 * @param bucket - the bucket index
+	 * @return the upper end of the bucket.
+	 */
+	static private long highestIn(int bucket) {
+		int shift = bucket < subCount ? 0 : bucket / halfCount - 1;
+		long step = bucket - (long) shift * halfCount;
+		return ((step + 1) << shift) - 1;
+	}
+
+	/**
+	 * gets a percentile of the recorded durations.
+	 * 
+	 * @param percentile - from 0 to 100
+	 * @return the upper end of the bucket holding the percentile, at most the
+	 *         largest duration recorded, or 0 if nothing was recorded.
+	 */
+	public long getPercentile(double percentile) {
+		long total = count.get();
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100) / 100));
+		long seen = 0;
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+			seen += counts.get(bucket);
+			if (seen >= rank) {
+				return Math.min(highestIn(bucket), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * @return the number of durations recorded.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the sum of the durations recorded.
+	 */
+	public long getTotal() {
+		return total.get();
+	}
+
+	/**
+	 * @return the average duration, or 0 if nothing was recorded.
+	 */
+	public double getMean() {
+		long n = count.get();
+		return n == 0 ? 0 : (double) total.get() / n;
+	}
+
+	/**
+	 * @return the largest duration recorded.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * forgets all recorded durations. Durations recorded at the same time may be
+	 * partly kept.
+	 */
+	public void reset() {
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+			counts.set(bucket, 0);
+		}
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the LatencyHistogram class - and the metrics published from
+ * it.
+ * 
+ * @author jgcaf
+ *
+ */
+class LatencyHistogramTest {
+
+	/**
+	 * checks that percentiles stay within a bucket's width of the true value.
+	 */
+	@Test
+	void percentilesAreCloseToValues() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long nanos = 1; nanos <= 100_000; nanos++) {
+			histogram.record(nanos * 1000);
+		}
+		assertEquals(100_000, histogram.getCount());
+		assertEquals(100_000_000, histogram.getMax());
+		assertEquals(50_000_500.0, histogram.getMean(), 1e-6);
+		assertEquals(50_000_000, histogram.getPercentile(50), 50_000_000 / 16.0);
+		assertEquals(99_000_000, histogram.getPercentile(99), 99_000_000 / 16.0);
+		assertEquals(100_000_000, histogram.getPercentile(100));
+		assertTrue(histogram.getPercentile(50) >= 50_000_000);
+
+		// small durations have a bucket each:
+		histogram.reset();
+		histogram.record(7);
+		histogram.record(-3);
+		assertEquals(7, histogram.getPercentile(100));
+		assertEquals(0, histogram.getPercentile(50));
+		assertEquals(2, histogram.getCount());
+	}
+
+	/**
+	 * checks that durations longer than the histogram's range are still counted.
+	 */
+	@Test
+	void hugeDurationsAreClamped() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(LatencyHistogram.maxValue, histogram.getMax());
+		assertEquals(LatencyHistogram.maxValue, histogram.getPercentile(99));
+	}
+
+	/**
+	 * checks that the metrics can be read through the platform MBean server.
+	 */
+	@Test
+	void metricsArePublished() throws Exception {
+		Metrics.register();
+		Metrics.register();
+		Metrics.global.recordTick(1234);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		long ticks = (Long) server.getAttribute(new ObjectName(Metrics.objectName), "TickCount");
+		assertTrue(ticks >= 1);
+	}
+
+	/**
+	 * checks that every frame is counted, whether or not the board was drawn in
+	 * it, and that late frames count as dropped.
+	 */
+	@Test
+	void framesAreCountedApartFromDrawing() {
+		Metrics metrics = new Metrics();
+		metrics.recordFrame(0);
+		metrics.recordFrame(16_000_000);
+		metrics.recordDisplay(500_000);
+		metrics.recordFrame(Metrics.droppedFrameNanos + 1);
+		assertEquals(3, metrics.getFrameCount());
+		assertEquals(1, metrics.getDisplayHistogram().getCount());
+		assertEquals(1, metrics.getDroppedFrames());
+	}
+
+	/**
+	 * checks that closing a run log counts the flush of its last records.
+	 */
+	@Test
+	void closingALogCountsItsFlush() throws IOException {
+		Path file = Files.createTempFile("flush", "_recorded.txt");
+		RunLogWriter log = new RunLogWriter(file.toString(), "1-1-0x000000ff-0xffffffff-0xff0000ff", 1L, 1000,
+				Long.MAX_VALUE);
+		log.append("0_W_1,1_2,2_2,2\n");
+		long flushes = Metrics.global.getLogFlushCount();
+		log.close();
+		assertEquals(flushes + 1, Metrics.global.getLogFlushCount());
+		assertEquals(3, Files.readAllLines(file).size());
+		Files.delete(file);
+	}
+}
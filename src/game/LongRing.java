@@ -0,0 +1,163 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * a double ended queue of primitive longs kept in a circular array. Adding to
+ * the front and removing from the back are constant time and do not allocate
+ * unless the queue has to grow past its capacity.
+ * 
+ * @author jgcaf
+ *
+ */
+public class LongRing {
+
+	private long[] elements;
+	// index of the first element, and the number of elements stored:
+	private int head = 0;
+	private int size = 0;
+	private int mask;
+
+	/**
+	 * initializes an empty ring.
+	 * 
+	 * @param initialCapacity - the number of elements it can hold before growing
+	 */
+	public LongRing(int initialCapacity) {
+		int capacity = 2;
+		while (capacity < initialCapacity) {
+			capacity <<= 1;
+		}
+		elements = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * adds an element to the front of the ring.
+	 * 
+	 * @param value - the value being added
+	 */
+	public void addFirst(long value) {
+		if (size == elements.length) {
+			grow();
+		}
+		head = (head - 1) & mask;
+		elements[head] = value;
+		size++;
+	}
+
+	/**
+	 * adds an element to the back of the ring.
+	 * 
+	 * @param value - the value being added
+	 */
+	public void addLast(long value) {
+		if (size == elements.length) {
+			grow();
+		}
+		elements[(head + size) & mask] = value;
+		size++;
+	}
+
+	/**
+	 * removes the element at the back of the ring.
+	 * 
+	 * @return the removed value.
+	 */
+	public long removeLast() {
+		if (size == 0) {
+			throw new IllegalStateException("ring is empty");
+		}
+		size--;
+		return elements[(head + size) & mask];
+	}
+
+	/**
+	 * removes the element at the front of the ring.
+	 * 
+	 * @return the removed value.
+	 */
+	public long removeFirst() {
+		if (size == 0) {
+			throw new IllegalStateException("ring is empty");
+		}
+		long value = elements[head];
+		head = (head + 1) & mask;
+		size--;
+		return value;
+	}
+
+	/**
+	 * @return the element at the front of the ring.
+	 */
+	public long peekFirst() {
+		return get(0);
+	}
+
+	/**
+	 * @return the element at the back of the ring.
+	 */
+	public long peekLast() {
+		return get(size - 1);
+	}
+
+	/**
+	 * gets an element counting from the front of the ring.
+	 * 
+	 * @param k - the position of the element, 0 is the front
+	 * @return the element at that position.
+	 */
+	public long get(int k) {
+		if (k < 0 || k >= size) {
+			throw new IndexOutOfBoundsException("index " + k + " of " + size);
+		}
+		return elements[(head + k) & mask];
+	}
+
+	/**
+	 * @return the number of elements in the ring.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * removes all elements without releasing the backing array.
+	 */
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * doubles the capacity, copying the elements so the front is at index 0.
+	 */
+	private void grow() {
+		long[] larger = new long[elements.length << 1];
+		for (int k = 0; k < size; k++) {
+			larger[k] = elements[(head + k) & mask];
+		}
+		elements = larger;
+		head = 0;
+		mask = larger.length - 1;
+	}
+}
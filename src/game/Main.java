@@ -70,6 +70,8 @@ public class Main extends Application {
 		gameHeight = 400;
 		loadBoardDensity();
 		loadFrameLag();
+		// publish the frame timings for jconsole:
+		Metrics.register();
 
 		// set stage:
 		pStage.setTitle("Snake");
@@ -0,0 +1,394 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * records where the time of each frame goes - ticks, drawing the board, writing
+ * the run log and loading replays - and publishes it as a JMX MBean, so a long
+ * running game can be watched with jconsole. Recording only counts into fixed
+ * counters and {@link LatencyHistogram}s, so it is cheap enough to leave on.
+ * The game records into {@link #global}.
+ * 
+ * @author jgcaf
+ *
+ */
+public class Metrics implements MetricsMBean {
+	static public final String objectName = "game:type=Metrics";
+	// rates are measured over windows of this length:
+	static private final long rateWindowNanos = 1_000_000_000L;
+	// a frame is dropped if it comes this long after the last one, one and a
+	// half frames at 60 frames per second:
+	static public final long droppedFrameNanos = 25_000_000L;
+
+	static public final Metrics global = new Metrics();
+
+	private final LatencyHistogram tick = new LatencyHistogram();
+	private final LatencyHistogram display = new LatencyHistogram();
+	private final LatencyHistogram flush = new LatencyHistogram();
+	private final LatencyHistogram replayParse = new LatencyHistogram();
+	private final LatencyHistogram inputLatency = new LatencyHistogram();
+	private final LatencyHistogram inputWait = new LatencyHistogram();
+	private final LatencyHistogram inputDisplay = new LatencyHistogram();
+	private final AtomicLong logBytes = new AtomicLong();
+	private final AtomicLong frames = new AtomicLong();
+	private final AtomicLong droppedFrames = new AtomicLong();
+	private volatile long replayParseLast = 0;
+	private volatile int inputDepth = 0;
+	private volatile int inputMaxDepth = 0;
+
+	// ticks run on the simulation thread and frames on the JavaFX thread, so each
+	// has a rate window of its own:
+	private final RateWindow tickRate = new RateWindow();
+	private final RateWindow frameRate = new RateWindow();
+
+	/**
+	 * publishes the global metrics on the platform MBean server. Registering
+	 * twice does nothing.
+	 */
+	static public void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(global, name);
+			}
+		} catch (JMException e) {
+			Logger.getLogger(Metrics.class.getName()).log(Level.SEVERE, null, e);
+		}
+	}
+
+	/**
+	 * records one tick of the game.
+	 * 
+	 * @param nanos - how long the tick took
+	 */
+	public void recordTick(long nanos) {
+		tick.record(nanos);
+		tickRate.update(System.nanoTime(), tick.getCount());
+	}
+
+	/**
+	 * records drawing the board, in the frames that had a new board to draw.
+	 * 
+	 * @param nanos - how long displaying the board took
+	 */
+	public void recordDisplay(long nanos) {
+		display.record(nanos);
+	}
+
+	/**
+	 * records a frame of the display, whether or not the board was drawn in it,
+	 * counting it as dropped if it came late.
+	 * 
+	 * @param nanos - the time since the last frame, 0 for the first one
+	 */
+	public void recordFrame(long nanos) {
+		if (nanos > droppedFrameNanos) {
+			droppedFrames.incrementAndGet();
+		}
+		frameRate.update(System.nanoTime(), frames.incrementAndGet());
+	}
+
+	/**
+	 * records the number of moves waiting in the input queue.
+	 * 
+	 * @param depth - the number of waiting moves
+	 */
+	public void recordInputDepth(int depth) {
+		inputDepth = depth;
+		if (depth > inputMaxDepth) {
+			inputMaxDepth = depth;
+		}
+	}
+
+	/**
+	 * records how long a move took from the key press to the screen, and where
+	 * the time went.
+	 * 
+	 * @param latencyNanos - from the key press to the drawn frame
+	 * @param waitNanos    - from the key press to the tick that applied it
+	 * @param displayNanos - from the tick to the drawn frame
+	 */
+	public void recordInput(long latencyNanos, long waitNanos, long displayNanos) {
+		inputLatency.record(latencyNanos);
+		inputWait.record(waitNanos);
+		inputDisplay.record(displayNanos);
+	}
+
+	/**
+	 * adds to the number of bytes written to run logs.
+	 * 
+	 * @param bytes - the bytes just written
+	 */
+	public void addLogBytes(long bytes) {
+		logBytes.addAndGet(bytes);
+	}
+
+	/**
+	 * records one flush of a run log to its file.
+	 * 
+	 * @param nanos - how long the flush took
+	 */
+	public void recordFlush(long nanos) {
+		flush.record(nanos);
+	}
+
+	/**
+	 * records opening a replay, before its first frame is shown.
+	 * 
+	 * @param nanos - how long opening the replay took
+	 */
+	public void recordReplayParse(long nanos) {
+		replayParse.record(nanos);
+		replayParseLast = nanos;
+	}
+
+	/**
+	 * @return the durations of the ticks.
+	 */
+	public LatencyHistogram getTickHistogram() {
+		return tick;
+	}
+
+	/**
+	 * @return the durations of displaying the board.
+	 */
+	public LatencyHistogram getDisplayHistogram() {
+		return display;
+	}
+
+	@Override
+	public long getTickCount() {
+		return tick.getCount();
+	}
+
+	@Override
+	public double getTicksPerSecond() {
+		return tickRate.perSecond;
+	}
+
+	@Override
+	public double getTickMeanNanos() {
+		return tick.getMean();
+	}
+
+	@Override
+	public long getTickP50Nanos() {
+		return tick.getPercentile(50);
+	}
+
+	@Override
+	public long getTickP99Nanos() {
+		return tick.getPercentile(99);
+	}
+
+	@Override
+	public long getTickMaxNanos() {
+		return tick.getMax();
+	}
+
+	@Override
+	public long getFrameCount() {
+		return frames.get();
+	}
+
+	@Override
+	public double getFramesPerSecond() {
+		return frameRate.perSecond;
+	}
+
+	@Override
+	public double getDisplayMeanNanos() {
+		return display.getMean();
+	}
+
+	@Override
+	public long getDisplayP50Nanos() {
+		return display.getPercentile(50);
+	}
+
+	@Override
+	public long getDisplayP99Nanos() {
+		return display.getPercentile(99);
+	}
+
+	@Override
+	public long getDisplayMaxNanos() {
+		return display.getMax();
+	}
+
+	@Override
+	public long getDroppedFrames() {
+		return droppedFrames.get();
+	}
+
+	@Override
+	public int getInputQueueDepth() {
+		return inputDepth;
+	}
+
+	@Override
+	public int getInputQueueMaxDepth() {
+		return inputMaxDepth;
+	}
+
+	/**
+	 * @return the times from key presses to the frames showing them.
+	 */
+	public LatencyHistogram getInputLatencyHistogram() {
+		return inputLatency;
+	}
+
+	@Override
+	public long getInputCount() {
+		return inputLatency.getCount();
+	}
+
+	@Override
+	public double getInputLatencyMeanNanos() {
+		return inputLatency.getMean();
+	}
+
+	@Override
+	public long getInputLatencyP50Nanos() {
+		return inputLatency.getPercentile(50);
+	}
+
+	@Override
+	public long getInputLatencyP99Nanos() {
+		return inputLatency.getPercentile(99);
+	}
+
+	@Override
+	public long getInputLatencyMaxNanos() {
+		return inputLatency.getMax();
+	}
+
+	@Override
+	public long getInputWaitP50Nanos() {
+		return inputWait.getPercentile(50);
+	}
+
+	@Override
+	public long getInputWaitP99Nanos() {
+		return inputWait.getPercentile(99);
+	}
+
+	@Override
+	public long getInputDisplayP50Nanos() {
+		return inputDisplay.getPercentile(50);
+	}
+
+	@Override
+	public long getInputDisplayP99Nanos() {
+		return inputDisplay.getPercentile(99);
+	}
+
+	@Override
+	public long getLogBytesWritten() {
+		return logBytes.get();
+	}
+
+	@Override
+	public long getLogFlushCount() {
+		return flush.getCount();
+	}
+
+	@Override
+	public long getLogFlushP99Nanos() {
+		return flush.getPercentile(99);
+	}
+
+	@Override
+	public long getLogFlushMaxNanos() {
+		return flush.getMax();
+	}
+
+	@Override
+	public long getReplayParseCount() {
+		return replayParse.getCount();
+	}
+
+	@Override
+	public long getReplayParseLastNanos() {
+		return replayParseLast;
+	}
+
+	@Override
+	public long getReplayParseMaxNanos() {
+		return replayParse.getMax();
+	}
+
+	@Override
+	public void reset() {
+		tick.reset();
+		display.reset();
+		flush.reset();
+		replayParse.reset();
+		inputLatency.reset();
+		inputWait.reset();
+		inputDisplay.reset();
+		logBytes.set(0);
+		frames.set(0);
+		droppedFrames.set(0);
+		replayParseLast = 0;
+		inputMaxDepth = inputDepth;
+	}
+
+	/**
+	 * measures a rate over windows of a second. A window is only updated by the
+	 * thread recording its count, so it needs no lock, and the rate is read
+	 * through a volatile field.
+	 */
+	static private class RateWindow {
+		// the count at the start of the current window:
+		private long start = System.nanoTime();
+		private long startCount = 0;
+		private volatile double perSecond = 0;
+
+		/**
+		 * ends the window once it is long enough.
+		 * 
+		 * @param now   - the current time in nanoseconds
+		 * @param count - the count so far
+		 */
+		void update(long now, long count) {
+			long elapsed = now - start;
+			if (elapsed < rateWindowNanos) {
+				return;
+			}
+			// a reset during the window starts the count again from 0:
+			perSecond = Math.max(0, count - startCount) * 1e9 / elapsed;
+			start = now;
+			startCount = count;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * the timings of the running game, as shown by jconsole or any other JMX
+ * client under game:type=Metrics. Durations are in nanoseconds.
+ * 
+ * @author jgcaf
+ *
+ */
+public interface MetricsMBean {
+
+	long getTickCount();
+
+	double getTicksPerSecond();
+
+	double getTickMeanNanos();
+
+	long getTickP50Nanos();
+
+	long getTickP99Nanos();
+
+	long getTickMaxNanos();
+
+	long getFrameCount();
+
+	double getFramesPerSecond();
+
+	double getDisplayMeanNanos();
+
+	long getDisplayP50Nanos();
+
+	long getDisplayP99Nanos();
+
+	long getDisplayMaxNanos();
+
+	long getDroppedFrames();
+
+	int getInputQueueDepth();
+
+	int getInputQueueMaxDepth();
+
+	long getInputCount();
+
+	double getInputLatencyMeanNanos();
+
+	long getInputLatencyP50Nanos();
+
+	long getInputLatencyP99Nanos();
+
+	long getInputLatencyMaxNanos();
+
+	long getInputWaitP50Nanos();
+
+	long getInputWaitP99Nanos();
+
+	long getInputDisplayP50Nanos();
+
+	long getInputDisplayP99Nanos();
+
+	long getLogBytesWritten();
+
+	long getLogFlushCount();
+
+	long getLogFlushP99Nanos();
+
+	long getLogFlushMaxNanos();
+
+	long getReplayParseCount();
+
+	long getReplayParseLastNanos();
+
+	long getReplayParseMaxNanos();
+
+	/**
+	 * forgets everything recorded so far, to start watching from now.
+	 */
+	void reset();
+}
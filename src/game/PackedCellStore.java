@@ -0,0 +1,97 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * a cell store backed by a single byte array, one byte per space, laid out
+ * column by column so scans down a column touch consecutive memory.
+ * 
+ * @author jgcaf
+ *
+ */
+public class PackedCellStore implements CellStore {
+
+	private final int cols;
+	private final int rows;
+	private final byte[] cells;
+
+	/**
+	 * initializes an empty store.
+	 * 
+	 * @param cols - total number of columns
+	 * @param rows - total number of rows
+	 */
+	public PackedCellStore(int cols, int rows) {
+		if ((long) cols * rows > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("board is too large for a packed store: " + cols + "x" + rows);
+		}
+		this.cols = cols;
+		this.rows = rows;
+		this.cells = new byte[cols * rows];
+	}
+
+	@Override
+	public int getCols() {
+		return cols;
+	}
+
+	@Override
+	public int getRows() {
+		return rows;
+	}
+
+	@Override
+	public byte get(long index) {
+		return cells[(int) index];
+	}
+
+	@Override
+	public void set(long index, byte state) {
+		cells[(int) index] = state;
+	}
+
+	/**
+	 * copies every space of another store of the same size into this one.
+	 * 
+	 * @param source - the store to copy
+	 */
+	public void copyFrom(CellStore source) {
+		if (source.getCols() != cols || source.getRows() != rows) {
+			throw new IllegalArgumentException("cannot copy a " + source.getCols() + "x" + source.getRows()
+					+ " board into a " + cols + "x" + rows + " one");
+		}
+		if (source instanceof PackedCellStore) {
+			System.arraycopy(((PackedCellStore) source).cells, 0, cells, 0, cells.length);
+		} else {
+			for (int k = 0; k < cells.length; k++) {
+				cells[k] = source.get(k);
+			}
+		}
+	}
+
+	@Override
+	public long footprintBytes() {
+		// array header plus one byte per space, rounded to the 8 byte object
+		// alignment:
+		return (16 + (long) cells.length + 7) & ~7L;
+	}
+}
@@ -0,0 +1,182 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * a small overlay of the game's performance, shown under the score: the time
+ * of a tick and of drawing the board, frames and ticks per second, dropped
+ * frames, heap used and the garbage collections since the game started. The
+ * numbers are sampled from {@link Metrics#global} a few times a second, into
+ * counters and one reused text buffer, so the frames in between do nothing.
+ * 
+ * @author jgcaf
+ *
+ */
+public class PerformanceHud {
+	// the overlay is refreshed this often:
+	static private final long refreshNanos = 250_000_000L;
+
+	private final Label label = new Label();
+	private final StringBuilder text = new StringBuilder(192);
+	private final GarbageCollectorMXBean[] collectors;
+	private final Runtime runtime = Runtime.getRuntime();
+	private boolean shown = false;
+
+	// the counts at the last refresh:
+	private long lastRefresh = 0;
+	private long lastTicks = 0;
+	private long lastTickNanos = 0;
+	private long lastFrames = 0;
+	private long lastDraws = 0;
+	private long lastDisplayNanos = 0;
+	private long lastInputs = 0;
+	private long lastInputNanos = 0;
+
+	/**
+	 * creates the overlay, hidden.
+	 */
+	public PerformanceHud() {
+		collectors = ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+		label.setTextFill(Color.SILVER);
+		label.setFont(new Font("Courier New", 12));
+		setShown(false);
+	}
+
+	/**
+	 * shows or hides the overlay. A hidden overlay takes no room.
+	 * 
+	 * @param shown - true to show it
+	 */
+	public void setShown(boolean shown) {
+		this.shown = shown;
+		label.setVisible(shown);
+		label.setManaged(shown);
+		// start measuring from now:
+		lastRefresh = 0;
+	}
+
+	/**
+	 * refreshes the overlay if it is shown and it is time to - called every
+	 * frame.
+	 * 
+	 * @param now - the time of the frame in nanoseconds
+	 */
+	public void update(long now) {
+		if (!shown) {
+			return;
+		}
+		Metrics metrics = Metrics.global;
+		LatencyHistogram ticks = metrics.getTickHistogram();
+		LatencyHistogram display = metrics.getDisplayHistogram();
+		LatencyHistogram input = metrics.getInputLatencyHistogram();
+		if (lastRefresh == 0) {
+			remember(now, metrics, ticks, display, input);
+			return;
+		}
+		long elapsed = now - lastRefresh;
+		if (elapsed < refreshNanos) {
+			return;
+		}
+
+		long tickCount = ticks.getCount() - lastTicks;
+		long frameCount = metrics.getFrameCount() - lastFrames;
+		long drawCount = display.getCount() - lastDraws;
+		long inputCount = input.getCount() - lastInputs;
+		text.setLength(0);
+		text.append("tick ");
+		appendMicros(tickCount <= 0 ? 0 : (ticks.getTotal() - lastTickNanos) / tickCount);
+		text.append("\ndraw ");
+		appendMicros(drawCount <= 0 ? 0 : (display.getTotal() - lastDisplayNanos) / drawCount);
+		// from key press to the frame showing the move:
+		text.append("\nlag  ");
+		appendMicros(inputCount <= 0 ? 0 : (input.getTotal() - lastInputNanos) / inputCount);
+		text.append("\nfps  ");
+		appendTenths(Math.max(0, frameCount) * 10_000_000_000L / elapsed);
+		text.append("\ntps  ");
+		appendTenths(Math.max(0, tickCount) * 10_000_000_000L / elapsed);
+		text.append("\ndrop ").append(metrics.getDroppedFrames());
+		text.append("\nheap ").append((runtime.totalMemory() - runtime.freeMemory()) >> 20).append(" MB");
+		long collections = 0;
+		long pauseMillis = 0;
+		for (GarbageCollectorMXBean collector : collectors) {
+			collections += Math.max(0, collector.getCollectionCount());
+			pauseMillis += Math.max(0, collector.getCollectionTime());
+		}
+		text.append("\ngc   ").append(collections).append(" / ").append(pauseMillis).append(" ms");
+		label.setText(text.toString());
+
+		remember(now, metrics, ticks, display, input);
+	}
+
+	/**
+	 * keeps the counts of a refresh, for measuring the next one.
+	 */
+	private void remember(long now, Metrics metrics, LatencyHistogram ticks, LatencyHistogram display,
+			LatencyHistogram input) {
+		lastRefresh = now;
+		lastTicks = ticks.getCount();
+		lastTickNanos = ticks.getTotal();
+		lastFrames = metrics.getFrameCount();
+		lastDraws = display.getCount();
+		lastDisplayNanos = display.getTotal();
+		lastInputs = input.getCount();
+		lastInputNanos = input.getTotal();
+	}
+
+	/**
+	 * appends a duration in microseconds with one decimal, without formatting
+	 * through a string.
+	 * 
+	 * @param nanos - the duration
+	 */
+	private void appendMicros(long nanos) {
+		appendTenths(nanos / 100);
+		text.append(" us");
+	}
+
+	/**
+	 * appends a number of tenths with one decimal.
+	 * 
+	 * @param tenths - the number
+	 */
+	private void appendTenths(long tenths) {
+		text.append(tenths / 10).append('.').append(tenths % 10);
+	}
+
+	/**
+	 * @return the label the overlay is drawn in.
+	 */
+	public Label getLabel() {
+		return label;
+	}
+
+	public boolean isShown() {
+		return shown;
+	}
+}
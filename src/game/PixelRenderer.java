@@ -0,0 +1,252 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.paint.Color;
+
+/**
+ * draws the board into a buffer of ARGB pixels the size of the canvas, and
+ * copies the changed parts into an image with a PixelWriter, so a frame is one
+ * drawImage call however many spaces changed. Each space covers a block of
+ * pixels whose edges are rounded separately, so the blocks fill the whole
+ * canvas without the gaps left by a fixed integer block size.
+ * 
+ * @author jgcaf
+ *
+ */
+public class PixelRenderer {
+	static private final PixelFormat<IntBuffer> format = PixelFormat.getIntArgbInstance();
+
+	private final GameEngine engine;
+	private final PixelWriter writer;
+	private final int cols;
+	private final int rows;
+	private final int width;
+	private final int height;
+	private final int[] pixels;
+	// pixel edges of the columns and rows, cols + 1 and rows + 1 long:
+	private final int[] xEdges;
+	private final int[] yEdges;
+	// whether the whole image has to be drawn again:
+	private boolean repaint = true;
+
+	/**
+	 * creates a renderer for a board.
+	 * 
+	 * @param engine - the game being drawn
+	 * @param width  - width of the image in pixels
+	 * @param height - height of the image in pixels
+	 * @param writer - writes into the image
+	 */
+	public PixelRenderer(GameEngine engine, int width, int height, PixelWriter writer) {
+		this.engine = engine;
+		this.writer = writer;
+		this.cols = engine.getCols();
+		this.rows = engine.getRows();
+		this.width = width;
+		this.height = height;
+		this.pixels = new int[width * height];
+		this.xEdges = edges(cols, width);
+		this.yEdges = edges(rows, height);
+	}
+
+	/**
+	 * splits a length of pixels evenly between a number of spaces.
+	 * 
+	 * @param spaces - the number of columns or rows
+	 * @param pixels - the width or height in pixels
+	 * @return the first pixel of every space, followed by the end.
+	 */
+	static private int[] edges(int spaces, int pixels) {
+		int[] edges = new int[spaces + 1];
+		for (int k = 0; k <= spaces; k++) {
+			edges[k] = (int) ((long) k * pixels / spaces);
+		}
+		return edges;
+	}
+
+	/**
+	 * draws the spaces that changed since the last update into the image.
+	 * 
+	 * @param boardArgb - color of empty spaces
+	 * @param snakeArgb - color of the snake
+	 * @param foodArgb  - color of the food
+	 * @return false if nothing changed, so the image does not need to be drawn
+	 *         again.
+	 */
+	public boolean update(int boardArgb, int snakeArgb, int foodArgb) {
+		DirtyCells dirty = engine.getDirtyCells();
+		if (repaint || dirty.isAllDirty()) {
+			repaintAll(engine.getStore(), boardArgb, snakeArgb, foodArgb);
+		} else if (dirty.isClean()) {
+			return false;
+		} else {
+			CellStore store = engine.getStore();
+			for (int k = 0; k < dirty.size(); k++) {
+				long space = dirty.get(k);
+				drawSpace((int) (space / rows), (int) (space % rows),
+						argbOf(store.get(space), boardArgb, snakeArgb, foodArgb));
+			}
+		}
+		dirty.clear();
+		return true;
+	}
+
+	/**
+	 * draws the spaces of a frame that changed since the last frame drawn.
+	 * 
+	 * @param frame     - the spaces of the board, the size of the engine's
+	 * @param changes   - the spaces that may differ from the last frame drawn
+	 * @param boardArgb - color of empty spaces
+	 * @param snakeArgb - color of the snake
+	 * @param foodArgb  - color of the food
+	 * @return false if nothing changed, so the image does not need to be drawn
+	 *         again.
+	 */
+	public boolean update(CellStore frame, DirtyCells changes, int boardArgb, int snakeArgb, int foodArgb) {
+		if (repaint || changes.isAllDirty()) {
+			repaintAll(frame, boardArgb, snakeArgb, foodArgb);
+		} else if (changes.isClean()) {
+			return false;
+		} else {
+			for (int k = 0; k < changes.size(); k++) {
+				long space = changes.get(k);
+				drawSpace((int) (space / rows), (int) (space % rows),
+						argbOf(frame.get(space), boardArgb, snakeArgb, foodArgb));
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * makes the next update draw every space, e.g. after the colors changed.
+	 */
+	public void invalidate() {
+		repaint = true;
+	}
+
+	/**
+	 * draws every space into the image.
+	 * 
+	 * @param store     - the spaces of the board
+	 * @param boardArgb - color of empty spaces
+	 * @param snakeArgb - color of the snake
+	 * @param foodArgb  - color of the food
+	 */
+	private void repaintAll(CellStore store, int boardArgb, int snakeArgb, int foodArgb) {
+		// draw the first pixel row of each row of spaces, then copy it down.
+		// On boards with more spaces than pixels, only the spaces that start
+		// a pixel are read:
+		for (int j = 0; j < rows; j++) {
+			int y0 = yEdges[j];
+			int y1 = yEdges[j + 1];
+			if (y0 == y1) {
+				continue;
+			}
+			int line = y0 * width;
+			long space = j;
+			for (int i = 0; i < cols; i++) {
+				if (xEdges[i] < xEdges[i + 1]) {
+					int argb = argbOf(store.get(space), boardArgb, snakeArgb, foodArgb);
+					for (int x = line + xEdges[i]; x < line + xEdges[i + 1]; x++) {
+						pixels[x] = argb;
+					}
+				}
+				space += rows;
+			}
+			for (int y = y0 + 1; y < y1; y++) {
+				System.arraycopy(pixels, line, pixels, y * width, width);
+			}
+		}
+		writer.setPixels(0, 0, width, height, format, pixels, 0, width);
+		repaint = false;
+	}
+
+	/**
+	 * draws one space into the image.
+	 * 
+	 * @param i    - column of the space
+	 * @param j    - row of the space
+	 * @param argb - the color
+	 */
+	private void drawSpace(int i, int j, int argb) {
+		if (xEdges[i] == xEdges[i + 1] || yEdges[j] == yEdges[j + 1]) {
+			// the space is smaller than a pixel and hidden by its neighbours:
+			return;
+		}
+		fillBlock(i, j, argb);
+		int x = xEdges[i];
+		int y = yEdges[j];
+		writer.setPixels(x, y, xEdges[i + 1] - x, yEdges[j + 1] - y, format, pixels, y * width + x, width);
+	}
+
+	/**
+	 * fills the block of pixels of one space.
+	 * 
+	 * @param i    - column of the space
+	 * @param j    - row of the space
+	 * @param argb - the color
+	 */
+	private void fillBlock(int i, int j, int argb) {
+		int x0 = xEdges[i];
+		int x1 = xEdges[i + 1];
+		for (int y = yEdges[j]; y < yEdges[j + 1]; y++) {
+			Arrays.fill(pixels, y * width + x0, y * width + x1, argb);
+		}
+	}
+
+	/**
+	 * @return the color of a space's state.
+	 */
+	static private int argbOf(byte state, int boardArgb, int snakeArgb, int foodArgb) {
+		if (state == CellStore.SNAKE) {
+			return snakeArgb;
+		} else if (state == CellStore.FOOD) {
+			return foodArgb;
+		}
+		return boardArgb;
+	}
+
+	/**
+	 * converts a color to a packed ARGB pixel.
+	 * 
+	 * @param color - the color
+	 * @return the pixel value.
+	 */
+	static public int argb(Color color) {
+		return (int) Math.round(color.getOpacity() * 255) << 24 | (int) Math.round(color.getRed() * 255) << 16
+				| (int) Math.round(color.getGreen() * 255) << 8 | (int) Math.round(color.getBlue() * 255);
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+}
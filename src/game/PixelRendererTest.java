@@ -0,0 +1,174 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.paint.Color;
+
+/**
+ * test class for the PixelRenderer class - draws small boards into an array
+ * standing in for the image.
+ * 
+ * @author jgcaf
+ *
+ */
+class PixelRendererTest {
+	static final int board = 0xff000000;
+	static final int snake = 0xff00ff00;
+	static final int food = 0xffff0000;
+
+	/**
+	 * checks that the blocks of a board that does not divide the canvas evenly
+	 * still cover every pixel, and that each pixel has its space's color.
+	 */
+	@Test
+	void blocksFillCanvasWithoutGaps() {
+		GameEngine engine = newEngine(3, 3);
+		ImageWriter image = new ImageWriter(10, 10);
+		PixelRenderer renderer = new PixelRenderer(engine, 10, 10, image);
+		assertTrue(renderer.update(board, snake, food));
+		assertMatchesBoard(engine, image);
+		// nothing changed, so nothing is drawn:
+		assertFalse(renderer.update(board, snake, food));
+	}
+
+	/**
+	 * checks that after a move only the changed spaces are copied, and the image
+	 * still matches the board.
+	 */
+	@Test
+	void onlyChangedSpacesAreCopied() {
+		GameEngine engine = newEngine(7, 5);
+		ImageWriter image = new ImageWriter(50, 37);
+		PixelRenderer renderer = new PixelRenderer(engine, 50, 37, image);
+		renderer.update(board, snake, food);
+		for (int k = 0; k < 6; k++) {
+			image.copies = 0;
+			engine.step(Direction.D);
+			renderer.update(board, snake, food);
+			assertTrue(image.copies <= 3, image.copies + " copies for one move");
+			assertMatchesBoard(engine, image);
+		}
+	}
+
+	@Test
+	void convertsColors() {
+		assertEquals(0xff336699, PixelRenderer.argb(Color.web("0x336699ff")));
+	}
+
+	private GameEngine newEngine(int cols, int rows) {
+		GameEngine engine = new GameEngine(cols, rows);
+		ArrayList<String> foodList = new ArrayList<>();
+		foodList.add("2,1");
+		foodList.add("0,0");
+		engine.setLoadedCoordinates(foodList);
+		engine.generateFromSave();
+		engine.placeSnake(0, 1, cols * rows);
+		return engine;
+	}
+
+	/**
+	 * checks every pixel of the image against the space it belongs to.
+	 */
+	private void assertMatchesBoard(GameEngine engine, ImageWriter image) {
+		for (int y = 0; y < image.height; y++) {
+			for (int x = 0; x < image.width; x++) {
+				// the last space whose first pixel is at or before this one:
+				int i = ((x + 1) * engine.getCols() + image.width - 1) / image.width - 1;
+				int j = ((y + 1) * engine.getRows() + image.height - 1) / image.height - 1;
+				char label = engine.getLabel(i, j);
+				int expected = label == GameEngine.SNAKE ? snake : label == GameEngine.FOOD ? food : board;
+				assertEquals(expected, image.pixels[y * image.width + x], "pixel " + x + "," + y);
+			}
+		}
+	}
+
+	/**
+	 * keeps the pixels copied into it, like an image.
+	 */
+	static class ImageWriter implements PixelWriter {
+		final int width;
+		final int height;
+		final int[] pixels;
+		int copies = 0;
+
+		ImageWriter(int width, int height) {
+			this.width = width;
+			this.height = height;
+			this.pixels = new int[width * height];
+		}
+
+		@Override
+		public void setPixels(int x, int y, int w, int h, PixelFormat<IntBuffer> pixelformat, int[] buffer,
+				int offset, int scanlineStride) {
+			copies++;
+			for (int row = 0; row < h; row++) {
+				System.arraycopy(buffer, offset + row * scanlineStride, pixels, (y + row) * width + x, w);
+			}
+		}
+
+		@Override
+		public PixelFormat<?> getPixelFormat() {
+			return null;
+		}
+
+		@Override
+		public void setArgb(int x, int y, int argb) {
+			pixels[y * width + x] = argb;
+		}
+
+		@Override
+		public void setColor(int x, int y, Color c) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public <T extends Buffer> void setPixels(int x, int y, int w, int h, PixelFormat<T> pixelformat, T buffer,
+				int scanlineStride) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void setPixels(int x, int y, int w, int h, PixelFormat<ByteBuffer> pixelformat, byte[] buffer,
+				int offset, int scanlineStride) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void setPixels(int dstx, int dsty, int w, int h, PixelReader reader, int srcx, int srcy) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * decides where a snake goes next in a headless game - the "player" being
+ * evaluated by a {@link PopulationRunner}. Each individual of a population gets
+ * its own policy, so an implementation may keep state between moves.
+ * 
+ * @author jgcaf
+ *
+ */
+public interface Policy {
+
+	/**
+	 * chooses the next move.
+	 * 
+	 * @param engine - the running game, which should only be read
+	 * @return the direction to move in, or null to keep going straight.
+	 */
+	Direction choose(GameEngine engine);
+}
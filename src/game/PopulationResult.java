@@ -0,0 +1,149 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * the outcome of evaluating a population: the fitness, score and length of
+ * every individual's game, and how long the whole population took.
+ * 
+ * @author jgcaf
+ *
+ */
+public class PopulationResult {
+	private final long[] seeds;
+	private final double[] fitness;
+	private final int[] scores;
+	private final long[] ticks;
+	private long elapsedNanos;
+
+	/**
+	 * @param seeds - the seed of each individual's game
+	 */
+	public PopulationResult(long[] seeds) {
+		this.seeds = seeds;
+		this.fitness = new double[seeds.length];
+		this.scores = new int[seeds.length];
+		this.ticks = new long[seeds.length];
+	}
+
+	/**
+	 * records the outcome of one game. Each individual is only written by the
+	 * thread that played it.
+	 * 
+	 * @param k       - the individual's position in the population
+	 * @param fitness - the game's fitness
+	 * @param score   - the game's final score
+	 * @param ticks   - the number of ticks the game lasted
+	 */
+	void record(int k, double fitness, int score, long ticks) {
+		this.fitness[k] = fitness;
+		this.scores[k] = score;
+		this.ticks[k] = ticks;
+	}
+
+	void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * 
+	 * @return the number of games played.
+	 */
+	public int getGames() {
+		return seeds.length;
+	}
+
+	public long getSeed(int k) {
+		return seeds[k];
+	}
+
+	public double getFitness(int k) {
+		return fitness[k];
+	}
+
+	public int getScore(int k) {
+		return scores[k];
+	}
+
+	public long getTicks(int k) {
+		return ticks[k];
+	}
+
+	/**
+	 * 
+	 * @return the position of the fittest individual, or -1 for an empty
+	 *         population.
+	 */
+	public int getBest() {
+		int best = -1;
+		for (int k = 0; k < fitness.length; k++) {
+			if (best < 0 || fitness[k] > fitness[best]) {
+				best = k;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * 
+	 * @return the fitness of the fittest individual.
+	 */
+	public double getBestFitness() {
+		int best = getBest();
+		return best < 0 ? Double.NaN : fitness[best];
+	}
+
+	/**
+	 * 
+	 * @return the total number of ticks played by the whole population.
+	 */
+	public long getTotalTicks() {
+		long total = 0;
+		for (long t : ticks) {
+			total += t;
+		}
+		return total;
+	}
+
+	/**
+	 * 
+	 * @return the wall-clock time the population took, in ns.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public double getGamesPerSecond() {
+		return seeds.length * 1e9 / elapsedNanos;
+	}
+
+	public double getTicksPerSecond() {
+		return getTotalTicks() * 1e9 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d games, %d ticks in %.3f s: %.0f games/sec, %.0f ticks/sec, best fitness %.3f",
+				getGames(), getTotalTicks(), elapsedNanos / 1e9, getGamesPerSecond(), getTicksPerSecond(),
+				getBestFitness());
+	}
+}
@@ -0,0 +1,202 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * plays one headless game per individual of a population, in parallel on a
+ * fork-join pool, for training a genetic algorithm. Each game runs on its own
+ * {@link GameEngine} with its own seed, drawn from a single population seed, so
+ * a run can be repeated exactly whatever the number of threads. Run with: java
+ * game.PopulationRunner [individuals [cols rows]]
+ * 
+ * @author jgcaf
+ *
+ */
+public class PopulationRunner {
+	// a game ends if the snake goes this many times the board's area without
+	// eating, so a policy that circles forever does not hold up the population:
+	static private final int starvationFactor = 1;
+
+	private final int cols;
+	private final int rows;
+	private final long maxTicks;
+	private final Fitness fitness;
+	private final ForkJoinPool pool;
+
+	/**
+	 * creates a runner with one worker thread per core.
+	 * 
+	 * @param cols     - total number of columns of each game
+	 * @param rows     - total number of rows of each game
+	 * @param maxTicks - the longest a single game may last
+	 * @param fitness  - scores each finished game
+	 */
+	public PopulationRunner(int cols, int rows, long maxTicks, Fitness fitness) {
+		this(cols, rows, maxTicks, fitness, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * creates a runner.
+	 * 
+	 * @param cols        - total number of columns of each game
+	 * @param rows        - total number of rows of each game
+	 * @param maxTicks    - the longest a single game may last
+	 * @param fitness     - scores each finished game
+	 * @param parallelism - the number of worker threads
+	 */
+	public PopulationRunner(int cols, int rows, long maxTicks, Fitness fitness, int parallelism) {
+		this.cols = cols;
+		this.rows = rows;
+		this.maxTicks = maxTicks;
+		this.fitness = fitness;
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * plays one game for every individual and scores it.
+	 * 
+	 * @param population - one policy per individual
+	 * @param seed       - the population seed the games' seeds are drawn from
+	 * @return the fitness, score and length of every game.
+	 */
+	public PopulationResult evaluate(List<? extends Policy> population, long seed) {
+		PopulationResult result = new PopulationResult(seeds(seed, population.size()));
+		long start = System.nanoTime();
+		pool.invoke(new EvaluateRange(population, result, 0, population.size()));
+		result.setElapsedNanos(System.nanoTime() - start);
+		return result;
+	}
+
+	/**
+	 * draws one seed per individual. The seeds only depend on the population seed
+	 * and the individual's position, not on which thread plays the game.
+	 * 
+	 * @param seed - the population seed
+	 * @param n    - the number of individuals
+	 * @return the seed of each individual's game.
+	 */
+	public static long[] seeds(long seed, int n) {
+		SplittableRandom random = new SplittableRandom(seed);
+		long[] seeds = new long[n];
+		for (int k = 0; k < n; k++) {
+			seeds[k] = random.nextLong();
+		}
+		return seeds;
+	}
+
+	/**
+	 * plays a single game to its end and records the outcome.
+	 * 
+	 * @param policy - the individual playing
+	 * @param result - where the outcome is recorded
+	 * @param k      - the individual's position in the population
+	 */
+	void play(Policy policy, PopulationResult result, int k) {
+		GameEngine engine = new GameEngine(cols, rows, result.getSeed(k));
+		engine.start(cols / 2, rows / 2);
+		long starvation = (long) starvationFactor * cols * rows;
+		long ticks = 0;
+		long lastMeal = 0;
+		int score = engine.getScore();
+		while (!engine.isDead() && !engine.isWon() && ticks < maxTicks && ticks - lastMeal < starvation) {
+			engine.step(policy.choose(engine));
+			ticks++;
+			if (engine.getScore() != score) {
+				score = engine.getScore();
+				lastMeal = ticks;
+			}
+		}
+		result.record(k, fitness.evaluate(engine, ticks), engine.getScore(), ticks);
+	}
+
+	/**
+	 * stops the worker threads once the runner is no longer needed.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * splits a range of the population in half until single games are left. Games
+	 * vary a lot in length, so small tasks let idle workers steal the rest.
+	 */
+	private class EvaluateRange extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final List<? extends Policy> population;
+		private final PopulationResult result;
+		private final int from;
+		private final int to;
+
+		EvaluateRange(List<? extends Policy> population, PopulationResult result, int from, int to) {
+			this.population = population;
+			this.result = result;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				play(population.get(from), result, from);
+			} else if (to > from) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new EvaluateRange(population, result, from, mid),
+						new EvaluateRange(population, result, mid, to));
+			}
+		}
+	}
+
+	/**
+	 * plays the same population of greedy snakes on 1, 2, 4, ... threads up to one
+	 * per core, and prints the throughput of each.
+	 * 
+	 * @param args - optional population size, columns and rows
+	 */
+	public static void main(String[] args) {
+		int individuals = args.length >= 1 ? Integer.parseInt(args[0]) : 2_000;
+		int cols = args.length >= 3 ? Integer.parseInt(args[1]) : 40;
+		int rows = args.length >= 3 ? Integer.parseInt(args[2]) : 40;
+		int cores = Runtime.getRuntime().availableProcessors();
+
+		System.out.println(String.format("%8s %12s %14s %10s %12s", "threads", "games/sec", "ticks/sec", "speedup",
+				"best"));
+		double single = 0;
+		for (int threads = 1; threads <= cores; threads = threads < cores ? Math.min(threads * 2, cores) : threads + 1) {
+			PopulationRunner runner = new PopulationRunner(cols, rows, 100L * cols * rows,
+					Fitness.scoreThenSurvival(), threads);
+			// warm up once on every thread count, then measure:
+			runner.evaluate(GreedyPolicy.population(individuals / 10 + 1, 1), 1);
+			PopulationResult result = runner.evaluate(GreedyPolicy.population(individuals, 2), 2);
+			runner.shutdown();
+			if (threads == 1) {
+				single = result.getTicksPerSecond();
+			}
+			System.out.println(String.format("%8d %12.0f %14.0f %10.2f %12.3f", threads, result.getGamesPerSecond(),
+					result.getTicksPerSecond(), result.getTicksPerSecond() / single, result.getBestFitness()));
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the PopulationRunner class.
+ * 
+ * @author jgcaf
+ *
+ */
+class PopulationRunnerTest {
+
+	/**
+	 * checks that a population plays the same games on one thread as on several.
+	 */
+	@Test
+	void resultsDoNotDependOnThreadCount() {
+		PopulationRunner single = new PopulationRunner(12, 12, 5_000, Fitness.scoreThenSurvival(), 1);
+		PopulationRunner parallel = new PopulationRunner(12, 12, 5_000, Fitness.scoreThenSurvival(), 4);
+		PopulationResult expected = single.evaluate(GreedyPolicy.population(50, 7), 42);
+		PopulationResult actual = parallel.evaluate(GreedyPolicy.population(50, 7), 42);
+		single.shutdown();
+		parallel.shutdown();
+
+		assertEquals(50, actual.getGames());
+		for (int k = 0; k < actual.getGames(); k++) {
+			assertEquals(expected.getSeed(k), actual.getSeed(k));
+			assertEquals(expected.getTicks(k), actual.getTicks(k));
+			assertEquals(expected.getScore(k), actual.getScore(k));
+			assertEquals(expected.getFitness(k), actual.getFitness(k));
+		}
+		assertTrue(actual.getTotalTicks() > 0);
+	}
+
+	/**
+	 * checks that every game stops at the tick limit.
+	 */
+	@Test
+	void gamesStopAtTickLimit() {
+		PopulationRunner runner = new PopulationRunner(12, 12, 30, Fitness.scoreThenSurvival(), 2);
+		PopulationResult result = runner.evaluate(GreedyPolicy.population(20, 3), 1);
+		runner.shutdown();
+		for (int k = 0; k < result.getGames(); k++) {
+			assertTrue(result.getTicks(k) <= 30);
+		}
+	}
+}
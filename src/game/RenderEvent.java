@@ -0,0 +1,55 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * a flight recorder event for one display of the board.
+ * 
+ * @author jgcaf
+ *
+ */
+@Name("game.Render")
+@Label("Render")
+@Category({ "Snake", "Game Loop" })
+@Description("One display of the board")
+@StackTrace(false)
+public class RenderEvent extends jdk.jfr.Event {
+	@Label("Columns")
+	public int cols;
+
+	@Label("Rows")
+	public int rows;
+
+	@Label("Changed Spaces")
+	@Description("Spaces redrawn, or -1 if the whole board was redrawn")
+	public int changedSpaces;
+
+	@Label("Drawn")
+	@Description("False if nothing changed and the image was not drawn")
+	public boolean drawn;
+}
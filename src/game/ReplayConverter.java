@@ -0,0 +1,203 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.io.File;
+import java.util.ArrayList;
+
+/**
+ * converts run logs between the text format written by the game and the binary
+ * replay format. Converting from binary re-simulates the run to recover the
+ * head and tail columns of the text log. A log recorded with a seed is checked
+ * against its seed while it is converted, and its binary replay only keeps the
+ * moves. Run with:
+ * 
+ * <pre>
+ * java game.ReplayConverter GameFiles/Bucky_recorded.txt   (writes Bucky_recorded.rpl)
+ * java game.ReplayConverter GameFiles/Bucky_recorded.rpl   (writes Bucky_recorded.txt)
+ * </pre>
+ * 
+ * @author jgcaf
+ *
+ */
+public class ReplayConverter {
+	static public final String binaryExtension = ".rpl";
+	static public final String textExtension = ".txt";
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("usage: java game.ReplayConverter <log.txt | replay.rpl> [output]");
+			return;
+		}
+		String input = args[0];
+		boolean toBinary = !input.endsWith(binaryExtension);
+		String output;
+		if (args.length > 1) {
+			output = args[1];
+		} else if (toBinary) {
+			output = input.replaceFirst("\\.txt$", "") + binaryExtension;
+		} else {
+			output = input.substring(0, input.length() - binaryExtension.length()) + textExtension;
+		}
+		if (toBinary) {
+			textToBinary(input, output);
+		} else {
+			binaryToText(input, output);
+		}
+		long inSize = new File(input).length();
+		long outSize = new File(output).length();
+		System.out.println(String.format("%s (%d bytes) -> %s (%d bytes), %.1fx", input, inSize, output, outSize,
+				toBinary ? (double) inSize / outSize : (double) outSize / inSize));
+	}
+
+	/**
+	 * converts a text run log into a binary replay.
+	 * 
+	 * @param textPath   - path to the text log
+	 * @param binaryPath - path the replay is written to
+	 * @throws IOException - if a file can not be read or written, or the log is
+	 *                     corrupted
+	 */
+	static public void textToBinary(String textPath, String binaryPath) throws IOException {
+		try (BufferedReader in = new BufferedReader(new FileReader(textPath));
+				OutputStream out = new BufferedOutputStream(new FileOutputStream(binaryPath))) {
+			textToBinary(in, out);
+		}
+	}
+
+	/**
+	 * converts a text run log into a binary replay.
+	 * 
+	 * @param in  - the text log, positioned at its settings line
+	 * @param out - the stream the replay is written to
+	 * @throws IOException - if a stream can not be read or written, or the log is
+	 *                     corrupted
+	 */
+	static public void textToBinary(BufferedReader in, OutputStream out) throws IOException {
+		TextReplayReader replay = new TextReplayReader(in);
+		if (replay.hasSeed()) {
+			BinaryReplayWriter writer = new BinaryReplayWriter(out, replay.getSettings(), replay.getCols(),
+					replay.getRows(), replay.getStartI(), replay.getStartJ(), replay.getSeed());
+			// re-simulate the run, which checks the logged food against the seed, and
+			// only keep the moves:
+			GameEngine engine = new GameEngine(replay.getCols(), replay.getRows(), replay.getSeed());
+			engine.start(replay.getStartI(), replay.getStartJ());
+			ReplayPlayer player = new ReplayPlayer(engine, replay);
+			while (player.tick()) {
+				writer.move(engine.getDirection());
+			}
+			writer.finish();
+			return;
+		}
+		BinaryReplayWriter writer = new BinaryReplayWriter(out, replay.getSettings(), replay.getCols(),
+				replay.getRows(), replay.getStartI(), replay.getStartJ());
+		int event = replay.next();
+		while (event != ReplaySource.end) {
+			if (event == ReplaySource.move) {
+				writer.move(replay.getDirection());
+			} else {
+				writer.food(replay.getFoodI(), replay.getFoodJ());
+			}
+			event = replay.next();
+		}
+		writer.finish();
+	}
+
+	/**
+	 * converts a binary replay into a text run log.
+	 * 
+	 * @param binaryPath - path to the replay
+	 * @param textPath   - path the text log is written to
+	 * @throws IOException - if a file can not be read or written, or the replay is
+	 *                     corrupted
+	 */
+	static public void binaryToText(String binaryPath, String textPath) throws IOException {
+		try (InputStream in = new BufferedInputStream(new FileInputStream(binaryPath));
+				Writer out = new BufferedWriter(new FileWriter(textPath))) {
+			binaryToText(in, out);
+		}
+	}
+
+	/**
+	 * converts a binary replay into a text run log by playing it on a headless
+	 * engine. The score column is the score before each move, which is what the
+	 * game logs.
+	 * 
+	 * @param in  - the stream the replay is read from
+	 * @param out - the text log
+	 * @throws IOException - if a stream can not be read or written, or the replay
+	 *                     is corrupted
+	 */
+	static public void binaryToText(InputStream in, Writer out) throws IOException {
+		BinaryReplayReader replay = new BinaryReplayReader(in);
+		out.write(replay.getSettingsLine());
+		out.write("\n");
+		GameEngine engine;
+		if (replay.hasSeed()) {
+			out.write(RunLogWriter.seedPrefix + replay.getSeed());
+			// the food follows from the seed:
+			engine = new GameEngine(replay.getCols(), replay.getRows(), replay.getSeed());
+			engine.start(replay.getStartI(), replay.getStartJ());
+		} else {
+			engine = new GameEngine(replay.getCols(), replay.getRows());
+			// food only comes from the replay's food records:
+			engine.setLoadedCoordinates(new ArrayList<String>());
+			engine.placeSnake(replay.getStartI(), replay.getStartJ(), (long) replay.getCols() * replay.getRows());
+		}
+		out.write("\n");
+
+		// a move's line is complete once the food it leads to has been placed,
+		// which the player does before returning from the move:
+		ReplayPlayer player = new ReplayPlayer(engine, replay);
+		int scoreBefore = engine.getScore();
+		while (player.tick()) {
+			writeLine(out, scoreBefore, engine);
+			scoreBefore = engine.getScore();
+		}
+	}
+
+	/**
+	 * writes one tick record in the text log format.
+	 * 
+	 * @param out    - the text log
+	 * @param score  - the score logged with the move
+	 * @param engine - the engine after the move
+	 * @throws IOException - if the log can not be written
+	 */
+	static private void writeLine(Writer out, int score, GameEngine engine) throws IOException {
+		out.write(score + "_" + engine.getDirection() + "_" + engine.getFoodI() + "," + engine.getFoodJ() + "_"
+				+ engine.getHeadI() + "," + engine.getHeadJ() + "_" + engine.getTailI() + "," + engine.getTailJ()
+				+ "\n");
+	}
+}
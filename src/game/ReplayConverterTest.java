@@ -0,0 +1,181 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the binary replay format - converts the recorded runs in
+ * GameFiles back and forth.
+ * 
+ * @author jgcaf
+ *
+ */
+class ReplayConverterTest {
+
+	/**
+	 * converts a text log to binary and back, and checks that every line of the
+	 * run is recovered.
+	 */
+	@Test
+	void textLogSurvivesRoundTrip() throws IOException {
+		String path = FileLogger.gameSaveDir + "Bucky_recorded.txt";
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		try (BufferedReader in = new BufferedReader(new FileReader(path))) {
+			ReplayConverter.textToBinary(in, binary);
+		}
+		StringWriter text = new StringWriter();
+		ReplayConverter.binaryToText(new ByteArrayInputStream(binary.toByteArray()), text);
+
+		String original = new String(Files.readAllBytes(Paths.get(path)));
+		assertEquals(original.trim(), text.toString().trim());
+		// the binary replay should be much smaller:
+		assertTrue(binary.size() * 20 < original.length(),
+				"replay is only " + original.length() / binary.size() + "x smaller");
+	}
+
+	/**
+	 * checks that a replay with a damaged header is rejected.
+	 */
+	@Test
+	void corruptedHeaderIsRejected() throws IOException {
+		String log = "1-1-0xffffffff-0x1a4d4dff-0xccffffff\n\n0_W_8,12_10,9_10,9\n0_W_8,12_10,8_10,8\n";
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		ReplayConverter.textToBinary(new BufferedReader(new StringReader(log)), binary);
+		byte[] bytes = binary.toByteArray();
+		// change one of the color settings:
+		bytes[12] ^= 1;
+		try {
+			new BinaryReplayReader(new ByteArrayInputStream(bytes));
+			fail("corrupted header was accepted");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * checks that food placed on a space it was on earlier in the run is still
+	 * read from a text log.
+	 */
+	@Test
+	void foodReturningToEarlierSpaceIsKept() throws IOException {
+		String log = "0-1-0xffffffff-0x1a4d4dff-0xccffffff\n\n" + "0_W_5,2_5,4_5,4\n" + "0_W_7,7_5,3_5,4\n"
+				+ "1_W_7,7_5,2_5,3\n" + "1_W_5,2_5,1_5,3\n";
+		TextReplayReader replay = new TextReplayReader(new BufferedReader(new StringReader(log)));
+		int moves = 0;
+		int food = 0;
+		for (int event = replay.next(); event != ReplaySource.end; event = replay.next()) {
+			if (event == ReplaySource.move) {
+				moves++;
+			} else {
+				food++;
+			}
+		}
+		assertEquals(4, moves);
+		assertEquals(3, food);
+		assertEquals(5, replay.getStartI());
+		assertEquals(5, replay.getStartJ());
+	}
+
+	/**
+	 * records a seeded run the way the game logs it, and checks that its binary
+	 * replay keeps only the moves and still converts back to the same log.
+	 */
+	@Test
+	void seededLogReplaysFromMovesAlone() throws IOException {
+		String log = recordSeededRun(1234);
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		ReplayConverter.textToBinary(new BufferedReader(new StringReader(log)), binary);
+
+		BinaryReplayReader replay = new BinaryReplayReader(new ByteArrayInputStream(binary.toByteArray()));
+		assertTrue(replay.hasSeed());
+		assertEquals(1234, replay.getSeed());
+		for (int event = replay.next(); event != ReplaySource.end; event = replay.next()) {
+			assertEquals(ReplaySource.move, event, "seeded replay should not record food");
+		}
+
+		StringWriter text = new StringWriter();
+		ReplayConverter.binaryToText(new ByteArrayInputStream(binary.toByteArray()), text);
+		assertEquals(log, text.toString());
+	}
+
+	/**
+	 * checks that a seeded log whose food does not follow from its seed is
+	 * rejected.
+	 */
+	@Test
+	void seededLogWithWrongFoodIsRejected() throws IOException {
+		String[] lines = recordSeededRun(99).split("\n");
+		// move the first food of the run by one row:
+		String[] fields = lines[2].split("_");
+		String[] food = fields[2].split(",");
+		fields[2] = food[0] + "," + (Integer.parseInt(food[1]) + 1) % 2;
+		lines[2] = String.join("_", fields);
+		try {
+			ReplayConverter.textToBinary(new BufferedReader(new StringReader(String.join("\n", lines))),
+					new ByteArrayOutputStream());
+			fail("food that does not match the seed was accepted");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * plays a game on a seeded engine and logs it in the game's text format.
+	 * 
+	 * @param seed - the game's seed
+	 * @return the run log.
+	 */
+	static String recordSeededRun(long seed) {
+		String settings = "1-1-0xffffffff-0x1a4d4dff-0xccffffff";
+		int size = FileLogger.translateBoardSize("1");
+		GameEngine engine = new GameEngine(size, size, seed);
+		engine.start(size / 2, size / 2);
+		Policy policy = new GreedyPolicy(seed, 0.2);
+		StringBuilder log = new StringBuilder(settings + "\n" + RunLogWriter.seedPrefix + seed + "\n");
+		for (int t = 0; t < 2000; t++) {
+			int score = engine.getScore();
+			engine.step(policy.choose(engine));
+			if (engine.isDead()) {
+				// the game does not log the move that killed the snake
+				break;
+			}
+			log.append(score + "_" + engine.getDirection() + "_" + engine.getFoodI() + "," + engine.getFoodJ() + "_"
+					+ engine.getHeadI() + "," + engine.getHeadJ() + "_" + engine.getTailI() + "," + engine.getTailJ()
+					+ "\n");
+		}
+		return log.toString();
+	}
+}
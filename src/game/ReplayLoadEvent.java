@@ -0,0 +1,49 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * a flight recorder event for opening a recorded run, up to the point where
+ * its first frame can be shown. The rest of the run is read while it plays.
+ * 
+ * @author jgcaf
+ *
+ */
+@Name("game.ReplayLoad")
+@Label("Replay Load")
+@Category({ "Snake", "I/O" })
+@Description("A recorded run opened for playback")
+public class ReplayLoadEvent extends jdk.jfr.Event {
+	@Label("Columns")
+	public int cols;
+
+	@Label("Rows")
+	public int rows;
+
+	@Label("Seeded")
+	public boolean seeded;
+}
@@ -0,0 +1,147 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.io.IOException;
+
+/**
+ * plays a recorded run on an engine, one move per tick. Food from the replay is
+ * placed as soon as the move that ate the previous food has been made, so the
+ * board always looks the way it did when the run was recorded. A seeded run is
+ * re-simulated instead: the engine places the food from the seed, and any food
+ * in the replay is checked against it.
+ * 
+ * @author jgcaf
+ *
+ */
+public class ReplayPlayer {
+
+	private GameEngine engine;
+	private ReplaySource source;
+	private boolean seeded;
+	// the move made on the next tick, or null once the replay has ended:
+	private Direction nextMove;
+	private long ticks = 0;
+
+	/**
+	 * starts playing a replay. The engine must already hold the snake at the
+	 * replay's start position; the food placed before the first move is added.
+	 * For a seeded replay, the engine must have been created with the replay's
+	 * seed and started like a new game, with its first food already placed.
+	 * 
+	 * @param engine - the engine the run is played on
+	 * @param source - the recorded run
+	 * @throws IOException - if the replay can not be read, or the engine does not
+	 *                     have the replay's seed
+	 */
+	public ReplayPlayer(GameEngine engine, ReplaySource source) throws IOException {
+		this.engine = engine;
+		this.source = source;
+		this.seeded = source.hasSeed();
+		if (seeded && engine.getSeed() != source.getSeed()) {
+			throw new IOException("replay seed " + source.getSeed() + " does not match the engine's seed");
+		}
+		// food comes from the seed, or else from the replay:
+		engine.setReplayMode(!seeded);
+		readAhead();
+	}
+
+	/**
+	 * makes the next recorded move.
+	 * 
+	 * @return false if the replay has already ended.
+	 * @throws IOException - if the replay can not be read
+	 */
+	public boolean tick() throws IOException {
+		if (nextMove == null) {
+			return false;
+		}
+		engine.step(nextMove);
+		ticks++;
+		readAhead();
+		return true;
+	}
+
+	/**
+	 * places food from the replay until the next move is found.
+	 * 
+	 * @throws IOException - if the replay can not be read, or a seeded replay's
+	 *                     food does not match the simulation
+	 */
+	private void readAhead() throws IOException {
+		int event = source.next();
+		while (event == ReplaySource.food) {
+			if (!seeded) {
+				engine.generateOnSpace(source.getFoodI(), source.getFoodJ());
+			} else if (source.getFoodI() != engine.getFoodI() || source.getFoodJ() != engine.getFoodJ()) {
+				throw new IOException("replay does not match its seed after move " + ticks + ": food at "
+						+ source.getFoodI() + "," + source.getFoodJ() + ", simulated at " + engine.getFoodI() + ","
+						+ engine.getFoodJ());
+			}
+			event = source.next();
+		}
+		if (event == ReplaySource.move) {
+			nextMove = source.getDirection();
+		} else {
+			nextMove = null;
+			source.close();
+		}
+	}
+
+	/**
+	 * stops reading the replay before its end, closing its source.
+	 * 
+	 * @throws IOException - if the source can not be closed
+	 */
+	public void close() throws IOException {
+		nextMove = null;
+		source.close();
+	}
+
+	/**
+	 * @return true once every recorded move has been played.
+	 */
+	public boolean isFinished() {
+		return nextMove == null;
+	}
+
+	/**
+	 * @return true if the run is re-simulated from its seed.
+	 */
+	public boolean isSeeded() {
+		return seeded;
+	}
+
+	/**
+	 * @return the number of moves played so far.
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return the engine the run is played on.
+	 */
+	public GameEngine getEngine() {
+		return engine;
+	}
+}
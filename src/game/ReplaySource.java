@@ -0,0 +1,101 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * a recorded run that is read one event at a time: the moves of the snake, and
+ * the food placed after the move that ate the previous food. Both the text run
+ * logs and the binary replays are read this way, so a replay can start playing
+ * before its file has been read, using the same memory for any length of run.
+ * 
+ * Runs recorded with a seed can be re-simulated from the seed and the moves
+ * alone; their food events, if there are any, only serve as a check.
+ * 
+ * @author jgcaf
+ *
+ */
+public interface ReplaySource extends Closeable {
+	static public final int move = 1;
+	static public final int food = 2;
+	static public final int end = 3;
+
+	/**
+	 * reads the next event.
+	 * 
+	 * @return move, food or end.
+	 * @throws IOException - if the replay can not be read or is corrupted
+	 */
+	int next() throws IOException;
+
+	/**
+	 * @return the direction of the last move read.
+	 */
+	Direction getDirection();
+
+	/**
+	 * @return the column of the last food read.
+	 */
+	int getFoodI();
+
+	/**
+	 * @return the row of the last food read.
+	 */
+	int getFoodJ();
+
+	/**
+	 * @return the five user settings the run was recorded with.
+	 */
+	String[] getSettings();
+
+	/**
+	 * @return the number of columns
+	 */
+	int getCols();
+
+	/**
+	 * @return the number of rows
+	 */
+	int getRows();
+
+	/**
+	 * @return the column the snake started on.
+	 */
+	int getStartI();
+
+	/**
+	 * @return the row the snake started on.
+	 */
+	int getStartJ();
+
+	/**
+	 * @return true if the run was recorded with its seed.
+	 */
+	boolean hasSeed();
+
+	/**
+	 * @return the seed the run's food was placed from, if it has one.
+	 */
+	long getSeed();
+}
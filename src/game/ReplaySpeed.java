@@ -0,0 +1,80 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * the speeds a replay can be played at, as multiples of the game speed. At
+ * MAX the replay runs as many moves as fit in each frame.
+ * 
+ * @author jgcaf
+ *
+ */
+public enum ReplaySpeed {
+	X1("1x", 1), X2("2x", 2), X8("8x", 8), X64("64x", 64), MAX("max", 0);
+
+	private final String label;
+	private final int multiplier;
+
+	/**
+	 * @param label      - the name shown in the replay window
+	 * @param multiplier - the number of moves per move of the game, or 0 for no
+	 *                   limit
+	 */
+	private ReplaySpeed(String label, int multiplier) {
+		this.label = label;
+		this.multiplier = multiplier;
+	}
+
+	/**
+	 * @return the number of moves per move of the game, or 0 for no limit.
+	 */
+	public int getMultiplier() {
+		return multiplier;
+	}
+
+	/**
+	 * @return true if the replay is not held to a tick rate.
+	 */
+	public boolean isUnlimited() {
+		return multiplier == 0;
+	}
+
+	/**
+	 * finds a speed by its label.
+	 * 
+	 * @param label - ex: "8x"
+	 * @return the speed, or null if there is none with that label.
+	 */
+	public static ReplaySpeed fromLabel(String label) {
+		for (ReplaySpeed speed : values()) {
+			if (speed.label.equals(label)) {
+				return speed;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return label;
+	}
+}
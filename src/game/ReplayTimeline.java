@@ -0,0 +1,328 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * a recorded run that can be played from any tick. The run is read from its
+ * stream while it is played, so the first frame is shown before the file is
+ * read: a second engine plays the recorded moves just ahead of the display,
+ * keeping every move, the tick each food appeared on, and a keyframe snapshot
+ * of the game every few ticks. Seeking restores the last keyframe at or before
+ * the target and re-simulates the moves after it, so it never costs more than
+ * one keyframe interval of moves. Seeking past the part read so far reads on
+ * to the target.
+ * <p>
+ * The price of seeking back is memory: the part of the run read so far is
+ * kept, one byte per move and one snapshot per keyframe interval, where a
+ * {@link ReplayPlayer} alone keeps nothing.
+ * 
+ * @author jgcaf
+ *
+ */
+public class ReplayTimeline implements Closeable {
+	static public final int defaultKeyframeInterval = 1000;
+
+	private final GameEngine engine;
+	private final int keyframeInterval;
+	// one direction ordinal per tick:
+	private byte[] moves = new byte[1024];
+	private int length = 0;
+	// the food placed after each tick, in order:
+	private int[] foodTicks = new int[64];
+	private long[] foodSpaces = new long[64];
+	private int foodCount = 0;
+	private ArrayList<EngineSnapshot> keyframes = new ArrayList<>();
+
+	// reads the run ahead of the display, until it reaches the end:
+	private GameEngine loader;
+	private ReplayPlayer player;
+	// why the run stopped being read before its end, or null:
+	private IOException failure;
+
+	private int tick = 0;
+	// the next food to place during playback:
+	private int nextFood = 0;
+
+	/**
+	 * starts a replay with the default keyframe interval.
+	 * 
+	 * @param engine - the engine the run is played on, set up as for a
+	 *               {@link ReplayPlayer}
+	 * @param source - the recorded run, which is read as it is played and closed
+	 *               at its end or by {@link #close()}
+	 * @throws IOException - if the start of the replay can not be read
+	 */
+	public ReplayTimeline(GameEngine engine, ReplaySource source) throws IOException {
+		this(engine, source, defaultKeyframeInterval);
+	}
+
+	/**
+	 * starts a replay, leaving the engine at its first tick. Nothing past the
+	 * food placed before the first move is read yet.
+	 * 
+	 * @param engine           - the engine the run is played on, set up as for a
+	 *                         {@link ReplayPlayer}
+	 * @param source           - the recorded run, which is read as it is played
+	 *                         and closed at its end or by {@link #close()}
+	 * @param keyframeInterval - the number of ticks between keyframes
+	 * @throws IOException - if the start of the replay can not be read
+	 */
+	public ReplayTimeline(GameEngine engine, ReplaySource source, int keyframeInterval) throws IOException {
+		this.engine = engine;
+		this.keyframeInterval = keyframeInterval;
+		// seeded food depends on the order the free spaces were taken in, so the
+		// run is read on an engine that only ever moves forward:
+		loader = newLoader(source);
+		player = new ReplayPlayer(loader, source);
+		keyframes.add(loader.snapshot());
+		// all food of the displayed engine is placed from the timeline:
+		engine.setLoadedCoordinates(new ArrayList<String>());
+		engine.restore(keyframes.get(0));
+	}
+
+	/**
+	 * sets up an engine for a replay the way the game does.
+	 * 
+	 * @param source - the recorded run
+	 * @return the engine, with the snake at the start.
+	 */
+	static private GameEngine newLoader(ReplaySource source) {
+		int cols = source.getCols();
+		int rows = source.getRows();
+		if (source.hasSeed()) {
+			GameEngine loader = new GameEngine(cols, rows, source.getSeed());
+			loader.start(source.getStartI(), source.getStartJ());
+			return loader;
+		}
+		GameEngine loader = new GameEngine(cols, rows);
+		loader.setLoadedCoordinates(new ArrayList<String>());
+		loader.placeSnake(source.getStartI(), source.getStartJ(), (long) cols * rows);
+		return loader;
+	}
+
+	/**
+	 * reads the next move of the run.
+	 * 
+	 * @return false if the run has no more moves.
+	 */
+	private boolean load() {
+		if (player == null) {
+			return false;
+		}
+		int foodI = loader.getFoodI();
+		int foodJ = loader.getFoodJ();
+		boolean moved;
+		try {
+			moved = player.tick();
+		} catch (IOException e) {
+			// the run ends where it can no longer be read, which is shown as an
+			// error rather than as the end of the run:
+			Logger.getLogger(ReplayTimeline.class.getName()).log(Level.SEVERE, null, e);
+			failure = e;
+			close();
+			return false;
+		}
+		if (!moved) {
+			// the whole run is read, the loader is not needed any more:
+			player = null;
+			loader = null;
+			return false;
+		}
+		addMove(loader.getDirection());
+		// the food was either read from the replay or placed from its seed:
+		if (loader.getFoodI() != foodI || loader.getFoodJ() != foodJ) {
+			addFood(loader.getSpace(loader.getFoodI(), loader.getFoodJ()));
+		}
+		if (length % keyframeInterval == 0) {
+			keyframes.add(loader.snapshot());
+		}
+		return true;
+	}
+
+	/**
+	 * reads the rest of the run, so its length is known.
+	 */
+	public void loadAll() {
+		while (load()) {
+			// keep reading
+		}
+	}
+
+	/**
+	 * makes the next move, reading it from the run first if it has not been
+	 * read yet.
+	 * 
+	 * @return false if the run has already ended.
+	 */
+	public boolean tick() {
+		if (tick >= length && !load()) {
+			return false;
+		}
+		engine.step(Direction.values()[moves[tick]]);
+		tick++;
+		while (nextFood < foodCount && foodTicks[nextFood] == tick) {
+			long space = foodSpaces[nextFood];
+			engine.generateOnSpace((int) (space / engine.getRows()), (int) (space % engine.getRows()));
+			nextFood++;
+		}
+		return true;
+	}
+
+	/**
+	 * moves the game to any tick of the run.
+	 * 
+	 * @param target - the tick, from 0 before the first move to the length of the
+	 *               run
+	 */
+	public void seek(int target) {
+		while (length < target && load()) {
+			// read up to the target
+		}
+		target = Math.max(0, Math.min(length, target));
+		// only go back to a keyframe if the target is not just ahead:
+		int keyframe = target / keyframeInterval;
+		if (target < tick || keyframe > tick / keyframeInterval) {
+			engine.restore(keyframes.get(keyframe));
+			tick = keyframe * keyframeInterval;
+			// the food up to the keyframe's tick is already on the board:
+			int found = Arrays.binarySearch(foodTicks, 0, foodCount, tick + 1);
+			nextFood = found >= 0 ? firstFoodAt(found) : -found - 1;
+		}
+		while (tick < target) {
+			tick();
+		}
+	}
+
+	/**
+	 * @param found - the position of any food placed on a tick
+	 * @return the position of the first food placed on that tick.
+	 */
+	private int firstFoodAt(int found) {
+		while (found > 0 && foodTicks[found - 1] == foodTicks[found]) {
+			found--;
+		}
+		return found;
+	}
+
+	/**
+	 * records a move.
+	 * 
+	 * @param direction - the direction the snake moved in
+	 */
+	private void addMove(Direction direction) {
+		if (length == moves.length) {
+			moves = Arrays.copyOf(moves, length * 2);
+		}
+		moves[length++] = (byte) direction.ordinal();
+	}
+
+	/**
+	 * records food placed after the latest move.
+	 * 
+	 * @param space - the packed index of the food's space
+	 */
+	private void addFood(long space) {
+		if (foodCount == foodTicks.length) {
+			foodTicks = Arrays.copyOf(foodTicks, foodCount * 2);
+			foodSpaces = Arrays.copyOf(foodSpaces, foodCount * 2);
+		}
+		foodTicks[foodCount] = length;
+		foodSpaces[foodCount] = space;
+		foodCount++;
+	}
+
+	/**
+	 * @return the tick the game is on, 0 before the first move.
+	 */
+	public int getTick() {
+		return tick;
+	}
+
+	/**
+	 * @return the number of moves of the run read so far.
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return true once no more of the run is read - at its end, after an error
+	 *         or once closed.
+	 */
+	public boolean isLoaded() {
+		return player == null;
+	}
+
+	/**
+	 * @return the error that stopped the run being read before its end, or null
+	 *         if it was read without one.
+	 */
+	public IOException getFailure() {
+		return failure;
+	}
+
+	/**
+	 * stops reading the run, closing its source. The part already read can
+	 * still be played.
+	 */
+	@Override
+	public void close() {
+		if (player == null) {
+			return;
+		}
+		try {
+			player.close();
+		} catch (IOException e) {
+			Logger.getLogger(ReplayTimeline.class.getName()).log(Level.SEVERE, null, e);
+		}
+		player = null;
+		loader = null;
+	}
+
+	/**
+	 * @return true once the last move has been played.
+	 */
+	public boolean isFinished() {
+		return tick >= length && isLoaded();
+	}
+
+	/**
+	 * @return the number of keyframes kept.
+	 */
+	public int getKeyframeCount() {
+		return keyframes.size();
+	}
+
+	/**
+	 * @return the engine the run is played on.
+	 */
+	public GameEngine getEngine() {
+		return engine;
+	}
+}
@@ -0,0 +1,234 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the ReplayTimeline class - seeking must give the same game as
+ * playing the run from the start.
+ * 
+ * @author jgcaf
+ *
+ */
+class ReplayTimelineTest {
+
+	/**
+	 * seeks back and forth through a recorded run and compares each tick with the
+	 * run played straight through.
+	 */
+	@Test
+	void seekMatchesPlayingFromStart() throws IOException {
+		String path = FileLogger.gameSaveDir + "Bucky_recorded.txt";
+		ReplayTimeline timeline = new ReplayTimeline(newEngine(open(path)), open(path), 100);
+		timeline.loadAll();
+		assertTrue(timeline.isLoaded());
+		int length = timeline.getLength();
+		assertTrue(length > 1000);
+		assertEquals(length / 100 + 1, timeline.getKeyframeCount());
+
+		int[] targets = { length / 2, 37, 0, length, length / 3, length / 3 + 5, 99, 100, 101, length - 1 };
+		for (int target : targets) {
+			timeline.seek(target);
+			assertEquals(target, timeline.getTick());
+			assertSameGame(playTo(open(path), target), timeline.getEngine());
+		}
+	}
+
+	/**
+	 * seeks through a seeded run, whose food comes from its seed.
+	 */
+	@Test
+	void seekWorksOnSeededRun() throws IOException {
+		String log = ReplayConverterTest.recordSeededRun(1234);
+		TextReplayReader replay = openLog(log);
+		ReplayTimeline timeline = new ReplayTimeline(newEngine(openLog(log)), replay, 50);
+		timeline.loadAll();
+		for (int target : new int[] { timeline.getLength(), 75, 10, 150 }) {
+			timeline.seek(target);
+			assertSameGame(playTo(openLog(log), target), timeline.getEngine());
+		}
+	}
+
+	/**
+	 * checks that a replay starts before its run is read, reads it as it plays,
+	 * and can seek back into the part read while the rest is still unread - for
+	 * a seeded run, whose food has to keep following its seed after seeking.
+	 */
+	@Test
+	void playsWhileReading() throws IOException {
+		String log = ReplayConverterTest.recordSeededRun(77);
+		ReplayTimeline timeline = new ReplayTimeline(newEngine(openLog(log)), openLog(log), 50);
+		assertEquals(0, timeline.getLength());
+		assertFalse(timeline.isLoaded());
+		assertSameGame(playTo(openLog(log), 0), timeline.getEngine());
+
+		for (int t = 1; t <= 120; t++) {
+			assertTrue(timeline.tick());
+			assertEquals(t, timeline.getLength());
+		}
+		assertEquals(3, timeline.getKeyframeCount());
+		timeline.seek(30);
+		assertSameGame(playTo(openLog(log), 30), timeline.getEngine());
+		assertEquals(120, timeline.getLength());
+		// playing on from the seek reaches the unread part again:
+		timeline.seek(110);
+		for (int t = 111; t <= 200; t++) {
+			assertTrue(timeline.tick());
+		}
+		assertSameGame(playTo(openLog(log), 200), timeline.getEngine());
+		// seeking past the part read reads up to the target:
+		timeline.seek(250);
+		assertEquals(250, timeline.getLength());
+		assertSameGame(playTo(openLog(log), 250), timeline.getEngine());
+
+		while (timeline.tick()) {
+			// play to the end
+		}
+		assertTrue(timeline.isLoaded());
+		assertTrue(timeline.isFinished());
+	}
+
+	/**
+	 * checks that a run that can not be read to its end reports why, instead of
+	 * looking like a short run.
+	 */
+	@Test
+	void unreadableRunIsAFailure() throws IOException {
+		String[] lines = ReplayConverterTest.recordSeededRun(77).split("\n");
+		// move the food of one record off where the seed puts it:
+		int broken = 2 + 150;
+		String[] fields = lines[broken].split("_");
+		fields[2] = fields[2].equals("0,0") ? "1,1" : "0,0";
+		lines[broken] = String.join("_", fields);
+		String log = String.join("\n", lines) + "\n";
+
+		ReplayTimeline timeline = new ReplayTimeline(newEngine(openLog(log)), openLog(log), 50);
+		timeline.loadAll();
+		assertTrue(timeline.isLoaded());
+		assertNotNull(timeline.getFailure());
+		assertTrue(timeline.getLength() < lines.length - 2);
+	}
+
+	/**
+	 * checks that closing a replay before its end closes its source.
+	 */
+	@Test
+	void closeStopsReading() throws IOException {
+		String log = ReplayConverterTest.recordSeededRun(77);
+		boolean[] closed = new boolean[1];
+		StringReader reader = new StringReader(log) {
+			@Override
+			public void close() {
+				closed[0] = true;
+				super.close();
+			}
+		};
+		TextReplayReader replay = new TextReplayReader(new BufferedReader(reader));
+		ReplayTimeline timeline = new ReplayTimeline(newEngine(openLog(log)), replay, 50);
+		for (int t = 0; t < 10; t++) {
+			assertTrue(timeline.tick());
+		}
+		timeline.close();
+		assertTrue(closed[0]);
+		assertTrue(timeline.isLoaded());
+		assertNull(timeline.getFailure());
+		// the part read can still be played:
+		timeline.seek(5);
+		assertSameGame(playTo(openLog(log), 5), timeline.getEngine());
+	}
+
+	/**
+	 * plays a replay from the start on a new engine.
+	 * 
+	 * @param replay - the recorded run
+	 * @param ticks  - the number of moves to play
+	 * @return the engine after the moves.
+	 */
+	private GameEngine playTo(ReplaySource replay, int ticks) throws IOException {
+		GameEngine engine = newEngine(replay);
+		ReplayPlayer player = new ReplayPlayer(engine, replay);
+		for (int t = 0; t < ticks; t++) {
+			assertTrue(player.tick());
+		}
+		replay.close();
+		return engine;
+	}
+
+	/**
+	 * sets up an engine for a replay the way the game does.
+	 * 
+	 * @param replay - the recorded run
+	 * @return the engine, with the snake at the start.
+	 */
+	private GameEngine newEngine(ReplaySource replay) {
+		int cols = replay.getCols();
+		int rows = replay.getRows();
+		if (replay.hasSeed()) {
+			GameEngine engine = new GameEngine(cols, rows, replay.getSeed());
+			engine.start(replay.getStartI(), replay.getStartJ());
+			return engine;
+		}
+		GameEngine engine = new GameEngine(cols, rows);
+		engine.setLoadedCoordinates(new ArrayList<String>());
+		engine.placeSnake(replay.getStartI(), replay.getStartJ(), (long) cols * rows);
+		return engine;
+	}
+
+	/**
+	 * checks that two engines hold the same game.
+	 */
+	private void assertSameGame(GameEngine expected, GameEngine actual) {
+		assertEquals(expected.getHeadI(), actual.getHeadI());
+		assertEquals(expected.getHeadJ(), actual.getHeadJ());
+		assertEquals(expected.getTailI(), actual.getTailI());
+		assertEquals(expected.getTailJ(), actual.getTailJ());
+		assertEquals(expected.getLength(), actual.getLength());
+		assertEquals(expected.getScore(), actual.getScore());
+		assertEquals(expected.getFoodI(), actual.getFoodI());
+		assertEquals(expected.getFoodJ(), actual.getFoodJ());
+		assertEquals(expected.getDirection(), actual.getDirection());
+		for (int i = 0; i < expected.getCols(); i++) {
+			for (int j = 0; j < expected.getRows(); j++) {
+				assertEquals(expected.getLabel(i, j), actual.getLabel(i, j), "space " + i + "," + j);
+			}
+		}
+	}
+
+	private TextReplayReader open(String path) throws IOException {
+		return new TextReplayReader(new BufferedReader(new FileReader(path)));
+	}
+
+	private TextReplayReader openLog(String log) throws IOException {
+		return new TextReplayReader(new BufferedReader(new StringReader(log)));
+	}
+}
@@ -0,0 +1,416 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdk.jfr.EventType;
+
+/**
+ * appends the record of each tick to a run log file as the game is played,
+ * instead of building the whole log in memory and saving it at the end. Records
+ * are buffered and flushed after a number of records or an amount of time,
+ * whichever comes first, so memory stays bounded no matter how long the run is.
+ * 
+ * Records are encoded straight into a reused byte buffer, and the game's tick
+ * records are built from the engine's numbers without making strings, so
+ * logging a tick does not allocate.
+ * 
+ * @author jgcaf
+ *
+ */
+public class RunLogWriter {
+	static protected final int bufferSize = 1 << 16;
+	static protected final int defaultFlushRecords = 1024;
+	static protected final long defaultFlushNanos = 1_000_000_000L;
+	// starts the second line of a log, which holds the game's seed:
+	static public final String seedPrefix = "seed:";
+	static private final EventType flushEvents = EventType.getEventType(LogFlushEvent.class);
+
+	private FileOutputStream out;
+	private final byte[] buffer = new byte[bufferSize];
+	private int buffered = 0;
+	private String path;
+	private final int flushRecords;
+	private final long flushNanos;
+	private int pendingRecords = 0;
+	private long lastFlush;
+	private long records = 0;
+	private boolean failed = false;
+	// tick times are written counting from here:
+	private final long openedNanos = System.nanoTime();
+
+	/**
+	 * creates the log file, replacing any old one, and writes the settings line
+	 * and the game's seed at the top of it.
+	 * 
+	 * @param path         - path to the log file
+	 * @param settingsLine - the user settings, ex: 1-1-0x000000ff-0xffffffff-0xff0000ff
+	 * @param seed         - the seed the run's food is placed from
+	 */
+	public RunLogWriter(String path, String settingsLine, long seed) {
+		this(path, settingsLine, seed, defaultFlushRecords, defaultFlushNanos);
+	}
+
+	/**
+	 * creates the log file with a custom flush policy.
+	 * 
+	 * @param path         - path to the log file
+	 * @param settingsLine - the user settings line written at the top
+	 * @param seed         - the seed the run's food is placed from
+	 * @param flushRecords - flush after this many records
+	 * @param flushNanos   - flush when this much time passed since the last flush
+	 */
+	public RunLogWriter(String path, String settingsLine, long seed, int flushRecords, long flushNanos) {
+		this.path = path;
+		this.flushRecords = flushRecords;
+		this.flushNanos = flushNanos;
+		try {
+			out = new FileOutputStream(path, false);
+			// settings, then the seed on the line that separates them from the
+			// records - older logs leave that line empty:
+			write(settingsLine + "\n" + seedPrefix + seed + "\n");
+		} catch (IOException e) {
+			fail(e);
+		}
+		lastFlush = System.nanoTime();
+	}
+
+	/**
+	 * appends one tick record. The record should end with a new line.
+	 * 
+	 * @param record - the record being logged
+	 */
+	public void append(String record) {
+		if (failed) {
+			return;
+		}
+		try {
+			write(record);
+			endRecord();
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * appends the record of the tick the game just played, in the same format as
+	 * {@link Snake#toString()} with the score in front:
+	 * score_direction_foodI,foodJ_headI,headJ_tailI,tailJ
+	 * 
+	 * @param score  - the score written at the start of the record
+	 * @param engine - the game, after the tick
+	 */
+	public void appendRecord(int score, GameEngine engine) {
+		appendRecord(score, engine, false, 0);
+	}
+
+	/**
+	 * appends the record of the tick the game just played, followed by when the
+	 * tick started, in microseconds since the log was opened:
+	 * score_direction_foodI,foodJ_headI,headJ_tailI,tailJ_micros. Replays read
+	 * past the time, so logs with and without it play the same.
+	 * 
+	 * @param score     - the score written at the start of the record
+	 * @param engine    - the game, after the tick
+	 * @param tickNanos - when the tick started, from System.nanoTime()
+	 */
+	public void appendRecord(int score, GameEngine engine, long tickNanos) {
+		appendRecord(score, engine, true, tickNanos);
+	}
+
+	/**
+	 * encodes a tick record straight into the buffer.
+	 * 
+	 * @param score     - the score written at the start of the record
+	 * @param engine    - the game, after the tick
+	 * @param timed     - whether the time of the tick is written
+	 * @param tickNanos - when the tick started, from System.nanoTime()
+	 */
+	private void appendRecord(int score, GameEngine engine, boolean timed, long tickNanos) {
+		if (failed) {
+			return;
+		}
+		try {
+			// every part is short, so one check leaves room for all of them:
+			reserve(104);
+			int start = buffered;
+			put(score);
+			buffer[buffered++] = '_';
+			buffer[buffered++] = (byte) engine.getDirection().name().charAt(0);
+			buffer[buffered++] = '_';
+			put(engine.getFoodI());
+			buffer[buffered++] = ',';
+			put(engine.getFoodJ());
+			buffer[buffered++] = '_';
+			put(engine.getHeadI());
+			buffer[buffered++] = ',';
+			put(engine.getHeadJ());
+			buffer[buffered++] = '_';
+			put(engine.getTailI());
+			buffer[buffered++] = ',';
+			put(engine.getTailJ());
+			if (timed) {
+				buffer[buffered++] = '_';
+				put((tickNanos - openedNanos) / 1000);
+			}
+			buffer[buffered++] = '\n';
+			Metrics.global.addLogBytes(buffered - start);
+			endRecord();
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * counts a finished record, and flushes if enough records or time went by.
+	 * 
+	 * @throws IOException - if the flush fails
+	 */
+	private void endRecord() throws IOException {
+		records++;
+		pendingRecords++;
+		if (pendingRecords >= flushRecords || System.nanoTime() - lastFlush >= flushNanos) {
+			flush();
+		}
+	}
+
+	/**
+	 * copies text into the buffer. Text that is not plain ascii is encoded as
+	 * UTF-8.
+	 * 
+	 * @param text - the text
+	 * @throws IOException - if the buffer had to be written out and that failed
+	 */
+	private void write(String text) throws IOException {
+		int length = text.length();
+		for (int k = 0; k < length; k++) {
+			if (text.charAt(k) >= 0x80) {
+				write(text.getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+		}
+		Metrics.global.addLogBytes(length);
+		int k = 0;
+		while (k < length) {
+			reserve(1);
+			int end = Math.min(length, k + buffer.length - buffered);
+			while (k < end) {
+				buffer[buffered++] = (byte) text.charAt(k++);
+			}
+		}
+	}
+
+	/**
+	 * copies bytes into the buffer.
+	 * 
+	 * @param bytes - the bytes
+	 * @throws IOException - if the buffer had to be written out and that failed
+	 */
+	private void write(byte[] bytes) throws IOException {
+		Metrics.global.addLogBytes(bytes.length);
+		int k = 0;
+		while (k < bytes.length) {
+			reserve(1);
+			int n = Math.min(bytes.length - k, buffer.length - buffered);
+			System.arraycopy(bytes, k, buffer, buffered, n);
+			buffered += n;
+			k += n;
+		}
+	}
+
+	/**
+	 * writes the number in decimal into the buffer, which must have room for it.
+	 * 
+	 * @param value - the number
+	 */
+	private void put(long value) {
+		long v = value;
+		if (v < 0) {
+			buffer[buffered++] = '-';
+			v = -v;
+		}
+		int start = buffered;
+		do {
+			buffer[buffered++] = (byte) ('0' + v % 10);
+			v /= 10;
+		} while (v > 0);
+		// the digits were written backwards:
+		for (int a = start, b = buffered - 1; a < b; a++, b--) {
+			byte digit = buffer[a];
+			buffer[a] = buffer[b];
+			buffer[b] = digit;
+		}
+	}
+
+	/**
+	 * makes room in the buffer, writing it to the file if it is too full.
+	 * 
+	 * @param bytes - the room needed
+	 * @throws IOException - if writing the buffer fails
+	 */
+	private void reserve(int bytes) throws IOException {
+		if (buffered + bytes > buffer.length) {
+			drain();
+		}
+	}
+
+	/**
+	 * writes the buffer to the file.
+	 * 
+	 * @throws IOException - if writing fails
+	 */
+	private void drain() throws IOException {
+		if (buffered > 0) {
+			out.write(buffer, 0, buffered);
+			buffered = 0;
+		}
+	}
+
+	/**
+	 * writes all buffered records to the file.
+	 */
+	public void flush() {
+		if (failed) {
+			return;
+		}
+		// only make the event while a recording wants it:
+		LogFlushEvent event = flushEvents.isEnabled() ? new LogFlushEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
+		long start = System.nanoTime();
+		try {
+			drain();
+		} catch (IOException e) {
+			fail(e);
+		}
+		lastFlush = System.nanoTime();
+		Metrics.global.recordFlush(lastFlush - start);
+		if (event != null && event.shouldCommit()) {
+			event.path = path;
+			event.records = pendingRecords;
+			event.totalRecords = records;
+			event.commit();
+		}
+		pendingRecords = 0;
+	}
+
+	/**
+	 * moves the log to a new file and keeps appending there - used when the
+	 * player renames the save in the middle of a run.
+	 * 
+	 * @param newPath - the new path of the log file
+	 */
+	public void moveTo(String newPath) {
+		if (failed || newPath.equals(path)) {
+			return;
+		}
+		try {
+			drain();
+			out.close();
+			Files.move(Paths.get(path), Paths.get(newPath), StandardCopyOption.REPLACE_EXISTING);
+			out = new FileOutputStream(newPath, true);
+			path = newPath;
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * flushes the remaining records and closes the file.
+	 */
+	public void close() {
+		if (failed) {
+			return;
+		}
+		// the last records go out as a flush like any other, so it is counted:
+		flush();
+		if (failed) {
+			return;
+		}
+		try {
+			out.close();
+		} catch (IOException e) {
+			fail(e);
+		}
+		failed = true;
+	}
+
+	/**
+	 * @return the path of the log file.
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return the number of records appended so far.
+	 */
+	public long getRecordCount() {
+		return records;
+	}
+
+	/**
+	 * logs an error and stops writing.
+	 * 
+	 * @param e - the error
+	 */
+	private void fail(IOException e) {
+		failed = true;
+		Logger.getLogger(RunLogWriter.class.getName()).log(Level.SEVERE, null, e);
+	}
+
+	/**
+	 * reads the end of a log file, starting at a whole line - for showing the
+	 * last part of a run without loading all of it.
+	 * 
+	 * @param path     - path to the log file
+	 * @param maxBytes - the most bytes read from the end of the file
+	 * @return the last lines of the file.
+	 */
+	static public String readTail(String path, int maxBytes) {
+		try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+			long start = Math.max(0, file.length() - maxBytes);
+			byte[] bytes = new byte[(int) (file.length() - start)];
+			file.seek(start);
+			file.readFully(bytes);
+			String tail = new String(bytes, StandardCharsets.UTF_8);
+			if (start > 0) {
+				// drop the partial first line:
+				tail = tail.substring(tail.indexOf('\n') + 1);
+			}
+			return tail;
+		} catch (IOException e) {
+			Logger.getLogger(RunLogWriter.class.getName()).log(Level.SEVERE, null, e);
+			return "";
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * runs the ticks of a game on a thread of its own, at the fixed rate of a tick
+ * scheduler, so a slow tick never holds up the JavaFX thread and drawing never
+ * slows down the game. After the ticks that were due, the state is published
+ * once, and the thread sleeps until the next tick. A tick that throws stops the
+ * simulation, and the exception is kept for the JavaFX thread to show.
+ * 
+ * @author jgcaf
+ *
+ */
+public class Simulation {
+	private final TickScheduler scheduler;
+	private final Runnable tick;
+	private final Runnable publish;
+	private volatile boolean running = false;
+	// the running thread, cleared by the thread itself when it stops:
+	private final AtomicReference<Thread> thread = new AtomicReference<>();
+	private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+	/**
+	 * creates a stopped simulation.
+	 * 
+	 * @param scheduler - the rate of the ticks. It must not be changed while the
+	 *                  simulation runs.
+	 * @param tick      - runs one tick
+	 * @param publish   - publishes the state after the due ticks
+	 */
+	public Simulation(TickScheduler scheduler, Runnable tick, Runnable publish) {
+		this.scheduler = scheduler;
+		this.tick = tick;
+		this.publish = publish;
+	}
+
+	/**
+	 * starts the simulation thread, if it is not running.
+	 */
+	public void start() {
+		if (thread.get() != null) {
+			return;
+		}
+		running = true;
+		Thread started = new Thread(this::run, "simulation");
+		// the game does not keep the application open:
+		started.setDaemon(true);
+		thread.set(started);
+		started.start();
+	}
+
+	/**
+	 * stops the simulation thread, and waits for the tick it is running to
+	 * finish, so the game can be changed safely once this returns.
+	 */
+	public void stop() {
+		Thread stopped = thread.get();
+		if (stopped == null) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(stopped);
+		boolean interrupted = false;
+		while (stopped.isAlive()) {
+			try {
+				stopped.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		thread.compareAndSet(stopped, null);
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return whether the simulation thread is running.
+	 */
+	public boolean isRunning() {
+		return thread.get() != null;
+	}
+
+	/**
+	 * takes the exception that stopped the simulation, so it is only reported
+	 * once.
+	 * 
+	 * @return the exception thrown by a tick, or null if none was.
+	 */
+	public RuntimeException takeFailure() {
+		return failure.getAndSet(null);
+	}
+
+	/**
+	 * runs the due ticks until the simulation is stopped.
+	 */
+	private void run() {
+		try {
+			while (running) {
+				int due = scheduler.advance(System.nanoTime());
+				for (int k = 0; k < due && running; k++) {
+					long start = System.nanoTime();
+					tick.run();
+					Metrics.global.recordTick(System.nanoTime() - start);
+				}
+				if (due > 0) {
+					publish.run();
+				}
+				LockSupport.parkNanos(this, scheduler.getNanosToNextTick());
+			}
+		} catch (RuntimeException e) {
+			Logger.getLogger(Simulation.class.getName()).log(Level.SEVERE, null, e);
+			failure.set(e);
+		} finally {
+			// a simulation stopped by a failure can be started again:
+			thread.compareAndSet(Thread.currentThread(), null);
+		}
+	}
+}
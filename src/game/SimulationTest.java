@@ -0,0 +1,247 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the Simulation class, and the frames it hands to the drawing
+ * thread.
+ * 
+ * @author jgcaf
+ *
+ */
+class SimulationTest {
+	static private final int size = 8;
+
+	/**
+	 * checks that frames taken while a simulation runs faster than any display are
+	 * whole, newer than the last frame taken, and end with the newest one - and
+	 * that drawing only the spaces each frame lists as changed keeps the picture
+	 * the same as the frame, also when frames are skipped.
+	 */
+	@Test
+	void framesAreWholeAndNewest() throws InterruptedException {
+		GameEngine[] game = { newGame(1) };
+		FrameExchange frames = new FrameExchange(size, size);
+		Simulation simulation = new Simulation(new TickScheduler(5000, 1000), () -> {
+			GameEngine engine = game[0];
+			if (engine.isWon()) {
+				game[0] = newGame(engine.getSeed() + 1);
+			} else {
+				engine.step(HamiltonianCycle.next(engine.getHeadI(), engine.getHeadJ(), size, size));
+			}
+		}, () -> {
+			if (frames.capture(game[0]) != null) {
+				frames.publish();
+			}
+		});
+		simulation.start();
+		PackedCellStore drawn = new PackedCellStore(size, size);
+		long last = 0;
+		int taken = 0;
+		int partial = 0;
+		long end = System.nanoTime() + 500_000_000L;
+		while (System.nanoTime() < end) {
+			BoardFrame frame = frames.take();
+			if (frame == null) {
+				continue;
+			}
+			assertTrue(frame.getSequence() > last);
+			last = frame.getSequence();
+			assertWhole(frame);
+			if (!frame.getChanges().isAllDirty()) {
+				partial++;
+			}
+			draw(drawn, frame);
+			taken++;
+		}
+		simulation.stop();
+		assertFalse(simulation.isRunning());
+		assertTrue(taken > 0);
+		assertTrue(partial > 0, "no frame listed its changes");
+
+		// once stopped, the last frame published is the next one taken:
+		long published = frames.getPublished();
+		BoardFrame frame = frames.take();
+		if (published > last) {
+			assertEquals(published, frame.getSequence());
+			assertWhole(frame);
+			draw(drawn, frame);
+		} else {
+			assertNull(frame);
+		}
+		assertNull(frames.take());
+		assertEquals(published, frames.getPublished());
+	}
+
+	/**
+	 * checks that a frame lists the changes of the frames skipped before it, and
+	 * that ticks changing nothing publish nothing.
+	 */
+	@Test
+	void skippedFramesKeepTheirChanges() {
+		GameEngine engine = newGame(3);
+		FrameExchange frames = new FrameExchange(size, size);
+		PackedCellStore drawn = new PackedCellStore(size, size);
+		frames.capture(engine);
+		frames.publish();
+		draw(drawn, frames.take());
+		for (int k = 0; k < 3; k++) {
+			engine.step(HamiltonianCycle.next(engine.getHeadI(), engine.getHeadJ(), size, size));
+			frames.capture(engine);
+			frames.publish();
+		}
+		BoardFrame frame = frames.take();
+		assertEquals(4, frame.getSequence());
+		assertFalse(frame.getChanges().isAllDirty());
+		draw(drawn, frame);
+
+		// nothing moved since the last frame:
+		assertNull(frames.capture(engine));
+		// grow the snake, then turn in a small square into its own body. The death
+		// is published once:
+		while (engine.getLength() < 6) {
+			engine.step(HamiltonianCycle.next(engine.getHeadI(), engine.getHeadJ(), size, size));
+			if (frames.capture(engine) != null) {
+				frames.publish();
+			}
+		}
+		for (int t = 0; t < 8 && !engine.isDead(); t++) {
+			engine.step(Direction.values()[(engine.getDirection().ordinal() + 1) % 4]);
+			if (frames.capture(engine) != null) {
+				frames.publish();
+			}
+			frame = frames.take();
+			if (frame != null) {
+				draw(drawn, frame);
+			}
+		}
+		assertTrue(frame != null && frame.isDead());
+		engine.step(Direction.values()[0]);
+		assertNull(frames.capture(engine));
+	}
+
+	/**
+	 * checks that a simulation keeps its rate, and runs no ticks once stopped.
+	 */
+	@Test
+	void runsAtTheSchedulersRate() throws InterruptedException {
+		AtomicInteger ticks = new AtomicInteger();
+		AtomicInteger published = new AtomicInteger();
+		Simulation simulation = new Simulation(new TickScheduler(100), ticks::incrementAndGet,
+				published::incrementAndGet);
+		simulation.start();
+		// starting twice does not start a second thread:
+		simulation.start();
+		Thread.sleep(500);
+		simulation.stop();
+		int count = ticks.get();
+		assertTrue(count >= 25 && count <= 75, "ticks: " + count);
+		assertTrue(published.get() > 0 && published.get() <= count);
+		Thread.sleep(50);
+		assertEquals(count, ticks.get());
+		// stopping twice is harmless:
+		simulation.stop();
+	}
+
+	/**
+	 * draws the changes of a frame into a copy of the last frame drawn, and checks
+	 * that the copy matches the frame.
+	 */
+	private void draw(PackedCellStore drawn, BoardFrame frame) {
+		DirtyCells changes = frame.getChanges();
+		if (changes.isAllDirty()) {
+			drawn.copyFrom(frame.getCells());
+		} else {
+			for (int k = 0; k < changes.size(); k++) {
+				drawn.set(changes.get(k), frame.getCells().get(changes.get(k)));
+			}
+		}
+		for (long space = 0; space < size * size; space++) {
+			assertEquals(frame.getCells().get(space), drawn.get(space), "space " + space);
+		}
+	}
+
+	/**
+	 * checks that a tick that throws stops the simulation, reports the exception
+	 * once, and leaves the simulation able to start again.
+	 */
+	@Test
+	void failedSimulationCanStartAgain() throws InterruptedException {
+		AtomicInteger ticks = new AtomicInteger();
+		Simulation simulation = new Simulation(new TickScheduler(1000), () -> {
+			if (ticks.incrementAndGet() == 3) {
+				throw new IllegalStateException("broken tick");
+			}
+		}, () -> {
+		});
+		simulation.start();
+		long end = System.nanoTime() + 5_000_000_000L;
+		while (simulation.isRunning() && System.nanoTime() < end) {
+			Thread.sleep(1);
+		}
+		assertFalse(simulation.isRunning());
+		RuntimeException failure = simulation.takeFailure();
+		assertEquals("broken tick", failure.getMessage());
+		assertNull(simulation.takeFailure());
+
+		simulation.start();
+		assertTrue(simulation.isRunning());
+		Thread.sleep(20);
+		simulation.stop();
+		assertTrue(ticks.get() > 3);
+		assertNull(simulation.takeFailure());
+	}
+
+	/**
+	 * checks that a frame holds one game state: the snake as long as the score,
+	 * and one food until the board is full.
+	 */
+	private void assertWhole(BoardFrame frame) {
+		int snake = 0;
+		int food = 0;
+		for (long space = 0; space < size * size; space++) {
+			byte state = frame.getCells().get(space);
+			if (state == CellStore.SNAKE) {
+				snake++;
+			} else if (state == CellStore.FOOD) {
+				food++;
+			}
+		}
+		assertEquals(frame.getScore() + 1, snake);
+		assertEquals(frame.isWon() ? 0 : 1, food);
+	}
+
+	/**
+	 * starts a game in the corner the cycle passes through.
+	 */
+	private GameEngine newGame(long seed) {
+		GameEngine engine = new GameEngine(size, size, seed);
+		engine.start(0, 0);
+		return engine;
+	}
+}
@@ -22,48 +22,40 @@
 
 package game;
 
-import java.util.ArrayList;
-
 import javafx.scene.input.KeyCode;
+import jdk.jfr.EventType;
 
 /**
- * the user controlled snake.
+ * the user controlled snake. The movement rules are run by the board's
+ * {@link GameEngine}, this class translates the keyboard controls for it.
  * 
  * @author jgcaf
  *
  */
 public class Snake {
+	static private final EventType tickEvents = EventType.getEventType(TickEvent.class);
 
-	// method to move the head of the snake Down = 40, Right = 39, Up = 38, Left =
-	// 37
-	private KeyCode direction = KeyCode.W;
-	private KeyCode previousDirection = KeyCode.S;
-	private boolean dead = false;
-	private int maxSize;
-	private int tail = 0;
-	private boolean replayMode;
-	ArrayList<Cell> body = new ArrayList<Cell>();
+	private GameEngine engine;
 	Board board;
 	Food food;
 
 	/**
 	 * initialize snake
 	 * 
-	 * @param board   - board indicating the playing field
-	 * @param food    - object containing food
-	 * @param startI  - starting row of snake head
-	 * @param startJ  - starting column
-	 * @param maxSize - max size of snake
+	 * @param board      - board indicating the playing field
+	 * @param food       - object containing food
+	 * @param startI     - starting row of snake head
+	 * @param startJ     - starting column
+	 * @param maxSize    - max size of snake
+	 * @param replayMode - true if new food is taken from a loaded save file
 	 */
-	public Snake(Board board, Food food, int startI, int startJ, int maxSize, boolean replayMode) {
+	public Snake(Board board, Food food, int startI, int startJ, long maxSize, boolean replayMode) {
 		this.board = board;
 		this.food = food;
+		this.engine = board.getEngine();
 		// initialize the snake's head
-		body.add(board.getSpace(startI, startJ));
-		// mark space as containing the snake
-		body.get(0).setLabel('S');
-		this.maxSize = maxSize;
-		this.replayMode = replayMode;
+		engine.placeSnake(startI, startJ, maxSize);
+		engine.setReplayMode(replayMode);
 	}
 
 	/**
@@ -72,54 +64,63 @@ public class Snake {
 	 * @param keyCode - the key being pressed
 	 */
 	public void update(KeyCode keyCode) {
-		// only change direction if it is not opposite the current direction
-		// prevents snake from reversing over itself:
-		if ((KeyCode.W == keyCode | KeyCode.S == keyCode | KeyCode.A == keyCode | KeyCode.D == keyCode)
-				& keyCode != this.previousDirection) {
-			// only allow a change in direction if the head does not move backwards -
-			// prevent inverting.
-			this.direction = keyCode;
+		update(translateKeyCode(keyCode));
+	}
+
+	/**
+	 * updates state of snake with a move from any source.
+	 * 
+	 * @param direction - the move, or null to keep going straight
+	 */
+	public void update(Direction direction) {
+		// only make the event while a recording wants it, so a tick does not
+		// allocate:
+		if (!tickEvents.isEnabled()) {
+			engine.step(direction);
+			return;
+		}
+		TickEvent event = new TickEvent();
+		event.begin();
+		engine.step(direction);
+		if (event.shouldCommit()) {
+			event.cols = engine.getCols();
+			event.rows = engine.getRows();
+			event.length = engine.getLength();
+			event.occupancy = (double) engine.getLength() / ((long) engine.getCols() * engine.getRows());
+			event.score = engine.getScore();
+			event.dead = engine.isDead();
+			event.commit();
 		}
-		// move in specified direction
-		move();
-		// updates the opposite direction:
-		oppositeDirection();
 	}
 
 	/**
 	 * maintains moving the snake in its current direction.
 	 */
 	public void update() {
-		// move in specified direction
-		move();
-		// updates the opposite direction:
-		oppositeDirection();
+		update((Direction) null);
 	}
 
 	/**
-	 * sets the direction opposite to the current direction.
+	 * translates a key press into a direction.
+	 * 
+	 * @param keyCode - the key being pressed
+	 * @return the matching direction, or null if the key is not one of WASD.
 	 */
-	private void oppositeDirection() {
-		switch (this.direction) {
-		case W: {
-			this.previousDirection = KeyCode.S;
-			break;
-		}
-		case S: {
-			this.previousDirection = KeyCode.W;
-			break;
-		}
-		case A: {
-			this.previousDirection = KeyCode.D;
-			break;
-		}
-		case D: {
-			this.previousDirection = KeyCode.A;
-			break;
+	static public Direction translateKeyCode(KeyCode keyCode) {
+		if (keyCode == null) {
+			return null;
 		}
+		switch (keyCode) {
+		case W:
+			return Direction.W;
+		case A:
+			return Direction.A;
+		case S:
+			return Direction.S;
+		case D:
+			return Direction.D;
 		default:
-			// do not change direction of no key is pressed.
-			break;
+			return null;
 		}
 	}
 
@@ -129,72 +130,14 @@ public class Snake {
 	 * @return direction of the snake
 	 */
 	public KeyCode getDirection() {
-		return this.direction;
+		return KeyCode.valueOf(engine.getDirection().name());
 	}
 
 	/**
 	 * moves the snake and logs the movements if needed.
 	 */
 	public void move() {
-		// only move if snake is not dead:
-		if (!dead & this.body.size() < this.maxSize) {
-			int i = this.body.get(0).getCoordinates().getI();
-			int j = this.body.get(0).getCoordinates().getJ();
-			switch (this.direction) {
-			case S: {
-				slither(i, j + 1);
-				break;
-			}
-			case D: {
-				slither(i + 1, j);
-				break;
-			}
-			case W: {
-				slither(i, j - 1);
-				break;
-			}
-			case A: {
-				slither(i - 1, j);
-				break;
-			}
-			default:
-				// do not change direction if no key is pressed.
-				break;
-			}
-		}
-	}
-
-	/**
-	 * method for handling the snake's movement
-	 * 
-	 * @param i - the row of the space being moved to
-	 * @param j - the column of the space being moved to.
-	 */
-	private void slither(int i, int j) {
-		if (board.getSpace(i, j).getLabel() == 'F') {
-			// if a food space, grow the queue
-			this.body.add(0, board.getSpace(i, j));
-			this.body.get(0).setLabel('S');
-			if (!replayMode) {
-				food.generateFood();
-			} else {
-				food.generateFromSave();
-			}
-			board.incrementScore();
-		} else if (board.getSpace(i, j).getLabel() == 'S') {
-			// stop moving if dead.
-			dead = true;
-		} else {
-			// if the snake is not dead, then add space to front of queue, and remove the
-			// last one:
-			this.body.add(0, board.getSpace(i, j));
-			this.body.get(0).setLabel('S');
-			int end = this.body.size() - 1;
-			this.body.get(end).setLabel('N');
-			this.body.remove(end);
-		}
-		// update tail:
-		tail = this.body.size() - 1;
+		update();
 	}
 
 	/**
@@ -202,8 +145,8 @@ public class Snake {
 	 */
 	@Override
 	public String toString() {
-		return (this.direction.toString() + "_" + food.toString() + "_" + body.get(0).toString() + "_"
-				+ body.get(tail).toString() + "\n");
+		return (engine.getDirection().toString() + "_" + food.toString() + "_" + engine.getHeadI() + ","
+				+ engine.getHeadJ() + "_" + engine.getTailI() + "," + engine.getTailJ() + "\n");
 	}
 
 	/**
@@ -212,8 +155,17 @@ public class Snake {
 	 * @return true if the snake is dead, false otherwise.
 	 */
 	public boolean isDead() {
-		return dead;
+		return engine.isDead();
+
+	}
 
+	/**
+	 * checks if the snake has filled the whole board
+	 * 
+	 * @return true if the game has been won, false otherwise.
+	 */
+	public boolean isWon() {
+		return engine.isWon();
 	}
 
 }
@@ -0,0 +1,308 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * plays thousands of complete headless games at each board size with random
+ * and scripted policies, and reports the throughput, the spread of tick times,
+ * the garbage collection and the peak heap of each. Every game is also checked
+ * against the rules of the game as it is played: the snake is one longer than
+ * the score, the food is never under the snake, and the labels of the board
+ * match the snake's body. Run with: java game.SoakHarness [games [size ...]],
+ * where a size is a number of spaces across or colsxrows, ex: java
+ * game.SoakHarness 1000 10 20 40 300x200
+ * 
+ * The program exits with status 1 if any rule was broken.
+ * 
+ * @author jgcaf
+ *
+ */
+public class SoakHarness {
+	static public final String[] policies = { "random", "greedy", "cycle" };
+	// the whole board is checked after this many ticks, and at the end of a game:
+	static private final int checkInterval = 1024;
+	// games end after this many ticks, or 100 times the board's area if less:
+	static private final long maxTicks = 1_000_000L;
+	// boards larger than this play a hundredth of the games:
+	static private final long largeBoard = 40 * 40;
+
+	/**
+	 * creates the policy that plays every game of a soak run.
+	 * 
+	 * @param name - random, greedy or cycle
+	 * @param seed - seed for the policy's random moves
+	 * @return the policy, or null if the name is unknown.
+	 */
+	static public Policy policy(String name, long seed) {
+		switch (name) {
+		case "random":
+			return new GreedyPolicy(seed, 1);
+		case "greedy":
+			return new GreedyPolicy(seed, 0.1);
+		case "cycle":
+			return engine -> HamiltonianCycle.next(engine.getHeadI(), engine.getHeadJ(), engine.getCols(),
+					engine.getRows());
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * plays a number of games at one board size with one policy, one after
+	 * another on the calling thread.
+	 * 
+	 * @param cols   - total number of columns of each game
+	 * @param rows   - total number of rows of each game
+	 * @param policy - random, greedy or cycle
+	 * @param games  - the number of games
+	 * @param seed   - the seed the games' and the policies' seeds are drawn from
+	 * @return the outcome of the run.
+	 */
+	public SoakResult run(int cols, int rows, String policy, int games, long seed) {
+		SoakResult result = new SoakResult(cols, rows, policy);
+		long[] seeds = PopulationRunner.seeds(seed, 2 * games);
+		List<MemoryPoolMXBean> heap = heapPools();
+		for (MemoryPoolMXBean pool : heap) {
+			pool.resetPeakUsage();
+		}
+		long gcStart = gcMillis();
+		long start = System.nanoTime();
+		// the scripted route starts where the route does, the others in the middle
+		// like the displayed game:
+		boolean route = policy.equals("cycle");
+		int startI = route ? HamiltonianCycle.startI : cols / 2;
+		int startJ = route ? HamiltonianCycle.startJ(rows) : rows / 2;
+		for (int k = 0; k < games; k++) {
+			play(cols, rows, policy(policy, seeds[2 * k + 1]), startI, startJ, seeds[2 * k], result);
+		}
+		result.setElapsedNanos(System.nanoTime() - start);
+		result.setGcMillis(gcMillis() - gcStart);
+		long peak = 0;
+		for (MemoryPoolMXBean pool : heap) {
+			peak += pool.getPeakUsage().getUsed();
+		}
+		result.setPeakHeapBytes(peak);
+		return result;
+	}
+
+	/**
+	 * plays one game to its end, timing each tick of the engine and checking the
+	 * rules after it.
+	 * 
+	 * @param cols   - total number of columns
+	 * @param rows   - total number of rows
+	 * @param policy - chooses the moves
+	 * @param startI - starting column of the snake head
+	 * @param startJ - starting row of the snake head
+	 * @param seed   - the game's seed
+	 * @param result - where the game is recorded
+	 */
+	void play(int cols, int rows, Policy policy, int startI, int startJ, long seed, SoakResult result) {
+		GameEngine engine = new GameEngine(cols, rows, seed);
+		engine.start(startI, startJ);
+		long limit = Math.min(maxTicks, 100L * cols * rows);
+		long starvation = (long) cols * rows;
+		long ticks = 0;
+		long lastMeal = 0;
+		int score = engine.getScore();
+		LatencyHistogram latency = result.getLatency();
+		check(engine, seed, ticks, result, true);
+		while (!engine.isDead() && !engine.isWon() && ticks < limit && ticks - lastMeal < starvation) {
+			Direction move = policy.choose(engine);
+			long start = System.nanoTime();
+			engine.step(move);
+			latency.record(System.nanoTime() - start);
+			ticks++;
+			if (engine.getScore() != score) {
+				score = engine.getScore();
+				lastMeal = ticks;
+			}
+			check(engine, seed, ticks, result, ticks % checkInterval == 0);
+		}
+		check(engine, seed, ticks, result, true);
+		result.recordGame(ticks);
+	}
+
+	/**
+	 * checks the rules of the game that hold after every tick.
+	 * 
+	 * @param engine - the game
+	 * @param seed   - the game's seed, for finding it again
+	 * @param tick   - the tick just played
+	 * @param result - where broken rules are recorded
+	 * @param board  - true to also check every space of the board
+	 */
+	private void check(GameEngine engine, long seed, long tick, SoakResult result, boolean board) {
+		if (engine.getLength() != engine.getScore() + 1) {
+			violation(result, engine, seed, tick,
+					"length " + engine.getLength() + " is not score " + engine.getScore() + " + 1");
+		}
+		if (!engine.isWon() && engine.getFoodI() >= 0
+				&& engine.getLabel(engine.getFoodI(), engine.getFoodJ()) != GameEngine.FOOD) {
+			violation(result, engine, seed, tick,
+					"food at " + engine.getFoodI() + "," + engine.getFoodJ() + " is not on the board");
+		}
+		if (board) {
+			checkBoard(engine, seed, tick, result);
+		}
+	}
+
+	/**
+	 * checks that the labels of the board are exactly the snake's body and one
+	 * food.
+	 * 
+	 * @param engine - the game
+	 * @param seed   - the game's seed, for finding it again
+	 * @param tick   - the tick just played
+	 * @param result - where broken rules are recorded
+	 */
+	private void checkBoard(GameEngine engine, long seed, long tick, SoakResult result) {
+		EngineSnapshot snapshot = engine.snapshot();
+		for (long space : snapshot.body) {
+			if (engine.getLabel(space) != GameEngine.SNAKE) {
+				violation(result, engine, seed, tick, "body space " + space + " is not labeled as the snake");
+				return;
+			}
+		}
+		long snake = 0;
+		long food = 0;
+		long spaces = (long) engine.getCols() * engine.getRows();
+		for (long space = 0; space < spaces; space++) {
+			char label = engine.getLabel(space);
+			if (label == GameEngine.SNAKE) {
+				snake++;
+			} else if (label == GameEngine.FOOD) {
+				food++;
+			}
+		}
+		if (snake != snapshot.body.length) {
+			violation(result, engine, seed, tick, snake + " spaces are labeled as the snake, its body has "
+					+ snapshot.body.length);
+		}
+		if (food != (engine.isWon() ? 0 : 1)) {
+			violation(result, engine, seed, tick, food + " spaces are labeled as food");
+		}
+	}
+
+	private void violation(SoakResult result, GameEngine engine, long seed, long tick, String message) {
+		result.recordViolation(engine.getCols() + "x" + engine.getRows() + " seed " + seed + " tick " + tick + ": "
+				+ message);
+	}
+
+	/**
+	 * @return the pools the heap is made of.
+	 */
+	static private List<MemoryPoolMXBean> heapPools() {
+		List<MemoryPoolMXBean> heap = new ArrayList<>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				heap.add(pool);
+			}
+		}
+		return heap;
+	}
+
+	/**
+	 * @return the total time spent in garbage collection since the program
+	 *         started.
+	 */
+	static private long gcMillis() {
+		long millis = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			millis += Math.max(0, collector.getCollectionTime());
+		}
+		return millis;
+	}
+
+	/**
+	 * parses a board size.
+	 * 
+	 * @param size - a number of spaces across, or colsxrows
+	 * @return the columns and rows.
+	 */
+	static int[] parseSize(String size) {
+		int x = size.indexOf('x');
+		if (x < 0) {
+			int n = Integer.parseInt(size);
+			return new int[] { n, n };
+		}
+		return new int[] { Integer.parseInt(size.substring(0, x)), Integer.parseInt(size.substring(x + 1)) };
+	}
+
+	/**
+	 * soaks every board size with every policy and prints a line for each.
+	 * 
+	 * @param args - optional number of games, then board sizes
+	 */
+	public static void main(String[] args) {
+		int games = args.length >= 1 ? Integer.parseInt(args[0]) : 1000;
+		List<int[]> sizes = new ArrayList<>();
+		for (int k = 1; k < args.length; k++) {
+			sizes.add(parseSize(args[k]));
+		}
+		if (sizes.isEmpty()) {
+			sizes.add(new int[] { Main.lowDensity, Main.lowDensity });
+			sizes.add(new int[] { Main.mediumDensity, Main.mediumDensity });
+			sizes.add(new int[] { Main.highDensity, Main.highDensity });
+			sizes.add(new int[] { 300, 200 });
+			sizes.add(new int[] { 1000, 1000 });
+		}
+
+		SoakHarness harness = new SoakHarness();
+		System.out.println(String.format("%11s %7s %6s %11s %11s %9s %8s %8s %8s %7s %8s %6s", "board", "policy",
+				"games", "ticks", "ticks/sec", "games/sec", "p50 ns", "p99 ns", "p999 ns", "gc ms", "heap MB",
+				"broken"));
+		long broken = 0;
+		for (int[] size : sizes) {
+			int cols = size[0];
+			int rows = size[1];
+			int n = (long) cols * rows > largeBoard ? Math.max(1, games / 100) : games;
+			for (String policy : policies) {
+				// the route only closes on boards with an even number of columns:
+				if (policy.equals("cycle") && (cols % 2 != 0 || rows < 2)) {
+					continue;
+				}
+				SoakResult result = harness.run(cols, rows, policy, n, cols * 31L + rows);
+				LatencyHistogram latency = result.getLatency();
+				System.out.println(String.format("%11s %7s %6d %11d %11.0f %9.1f %8d %8d %8d %7d %8d %6d",
+						cols + "x" + rows, policy, result.getGames(), result.getTicks(), result.getTicksPerSecond(),
+						result.getGamesPerSecond(), latency.getPercentile(50), latency.getPercentile(99),
+						latency.getPercentile(99.9), result.getGcMillis(), result.getPeakHeapBytes() >> 20,
+						result.getViolations()));
+				if (result.getViolations() > 0) {
+					System.out.println("    first broken rule: " + result.getFirstViolation());
+				}
+				broken += result.getViolations();
+			}
+		}
+		if (broken > 0) {
+			System.exit(1);
+		}
+	}
+}
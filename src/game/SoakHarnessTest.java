@@ -0,0 +1,60 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * test class for the SoakHarness class - a short soak of every policy.
+ * 
+ * @author jgcaf
+ *
+ */
+class SoakHarnessTest {
+
+	/**
+	 * checks that no rule of the game is broken by any policy on a small,
+	 * non-square board, and that the games are counted.
+	 */
+	@Test
+	void rulesHoldForEveryPolicy() {
+		SoakHarness harness = new SoakHarness();
+		for (String policy : SoakHarness.policies) {
+			SoakResult result = harness.run(12, 8, policy, 30, 4L);
+			assertEquals(0, result.getViolations(), result.getFirstViolation());
+			assertEquals(30, result.getGames());
+			assertEquals(result.getTicks(), result.getLatency().getCount());
+			assertTrue(result.getTicksPerSecond() > 0);
+		}
+	}
+
+	/**
+	 * checks that board sizes are read as squares or as columns by rows.
+	 */
+	@Test
+	void parsesSizes() {
+		assertArrayEquals(new int[] { 40, 40 }, SoakHarness.parseSize("40"));
+		assertArrayEquals(new int[] { 300, 200 }, SoakHarness.parseSize("300x200"));
+	}
+}
@@ -0,0 +1,159 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * the outcome of a soak run of one board size and policy: how much was played,
+ * how fast, how the ticks were spread, what it cost the heap, and the first of
+ * any broken rules of the game.
+ * 
+ * @author jgcaf
+ *
+ */
+public class SoakResult {
+	private final int cols;
+	private final int rows;
+	private final String policy;
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private int games = 0;
+	private long ticks = 0;
+	private long elapsedNanos = 0;
+	private long gcMillis = 0;
+	private long peakHeapBytes = 0;
+	private long violations = 0;
+	private String firstViolation = null;
+
+	/**
+	 * @param cols   - total number of columns of each game
+	 * @param rows   - total number of rows of each game
+	 * @param policy - the name of the policy playing
+	 */
+	public SoakResult(int cols, int rows, String policy) {
+		this.cols = cols;
+		this.rows = rows;
+		this.policy = policy;
+	}
+
+	/**
+	 * records one finished game.
+	 * 
+	 * @param ticks - the number of ticks it lasted
+	 */
+	void recordGame(long ticks) {
+		games++;
+		this.ticks += ticks;
+	}
+
+	/**
+	 * records a broken rule, keeping the message of the first one.
+	 * 
+	 * @param message - what was wrong, and where
+	 */
+	void recordViolation(String message) {
+		if (violations == 0) {
+			firstViolation = message;
+		}
+		violations++;
+	}
+
+	void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	void setGcMillis(long gcMillis) {
+		this.gcMillis = gcMillis;
+	}
+
+	void setPeakHeapBytes(long peakHeapBytes) {
+		this.peakHeapBytes = peakHeapBytes;
+	}
+
+	public int getCols() {
+		return cols;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public String getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * @return the time each tick of the engine took, in nanoseconds.
+	 */
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	public int getGames() {
+		return games;
+	}
+
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return the number of games played per second.
+	 */
+	public double getGamesPerSecond() {
+		return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * @return the number of ticks played per second, including choosing the
+	 *         moves.
+	 */
+	public double getTicksPerSecond() {
+		return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * @return the time spent in garbage collection during the run.
+	 */
+	public long getGcMillis() {
+		return gcMillis;
+	}
+
+	/**
+	 * @return the most heap in use during the run, summed over the heap's pools.
+	 */
+	public long getPeakHeapBytes() {
+		return peakHeapBytes;
+	}
+
+	/**
+	 * @return the number of times a rule of the game was found broken.
+	 */
+	public long getViolations() {
+		return violations;
+	}
+
+	/**
+	 * @return what the first broken rule was, or null if there was none.
+	 */
+	public String getFirstViolation() {
+		return firstViolation;
+	}
+}
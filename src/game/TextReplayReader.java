@@ -0,0 +1,260 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * reads a text run log one line at a time. Each line is parsed in place into its
+ * direction and food coordinate without splitting it, and food is reported
+ * whenever it moves to a new space, so food that is placed on a space it was on
+ * earlier in the run is kept.
+ * 
+ * @author jgcaf
+ *
+ */
+public class TextReplayReader implements ReplaySource {
+
+	private BufferedReader in;
+	private String[] settings;
+	private int cols;
+	private int rows;
+	private int startI;
+	private int startJ;
+	private boolean seeded = false;
+	private long seed;
+
+	// the next line to be returned as a move, read ahead of time:
+	private String nextLine;
+	private Direction direction;
+	private int foodI = -1;
+	private int foodJ = -1;
+	private boolean foodPending = false;
+	private int lineNumber = 0;
+
+	/**
+	 * reads the settings and the first record of a run log.
+	 * 
+	 * @param in - the text log, positioned at its settings line
+	 * @throws IOException - if the log can not be read or is corrupted
+	 */
+	public TextReplayReader(BufferedReader in) throws IOException {
+		this.in = in;
+		String settingsLine = readLine();
+		if (settingsLine == null) {
+			throw new IOException("run log is empty");
+		}
+		settings = settingsLine.split("-");
+		cols = FileLogger.translateBoardSize(settings[0]);
+		rows = cols;
+		startI = cols / 2;
+		startJ = rows / 2;
+
+		// the line between the settings and the records holds the seed, or is empty
+		// in older logs:
+		String seedLine = readLine();
+		if (seedLine != null && seedLine.startsWith(RunLogWriter.seedPrefix)) {
+			try {
+				seed = Long.parseLong(seedLine.substring(RunLogWriter.seedPrefix.length()));
+			} catch (NumberFormatException e) {
+				throw new IOException("unexpected seed on line " + lineNumber + ": " + seedLine, e);
+			}
+			seeded = true;
+		}
+		nextLine = readLine();
+		if (nextLine != null && !nextLine.isEmpty()) {
+			// the snake starts one move behind the head of the first record:
+			int first = nextLine.indexOf('_');
+			Direction firstDirection = parseDirection(nextLine, first + 1);
+			int head = nextLine.indexOf('_', nextLine.indexOf('_', first + 1) + 1);
+			int comma = nextLine.indexOf(',', head);
+			int end = nextLine.indexOf('_', comma);
+			startI = wrap(parseInt(nextLine, head + 1, comma) - firstDirection.getDi(), cols);
+			startJ = wrap(parseInt(nextLine, comma + 1, end) - firstDirection.getDj(), rows);
+			// the first food is placed before the first move:
+			parseFood(nextLine);
+			foodPending = true;
+		}
+	}
+
+	@Override
+	public int next() throws IOException {
+		if (foodPending) {
+			foodPending = false;
+			return food;
+		}
+		if (nextLine == null || nextLine.isEmpty()) {
+			return end;
+		}
+		String line = nextLine;
+		int first = line.indexOf('_');
+		if (first < 0) {
+			throw new IOException("unexpected record on line " + lineNumber + ": " + line);
+		}
+		direction = parseDirection(line, first + 1);
+		// food is reported after the move that ate the previous food:
+		foodPending = parseFood(line);
+		nextLine = readLine();
+		return move;
+	}
+
+	/**
+	 * parses the food coordinate of a record.
+	 * 
+	 * @param line - the record
+	 * @return true if the food is on a different space than before.
+	 * @throws IOException - if the coordinate can not be parsed
+	 */
+	private boolean parseFood(String line) throws IOException {
+		int start = line.indexOf('_', line.indexOf('_') + 1) + 1;
+		int comma = line.indexOf(',', start);
+		int end = line.indexOf('_', comma);
+		if (start <= 0 || comma < 0 || end < 0) {
+			throw new IOException("unexpected record on line " + lineNumber + ": " + line);
+		}
+		int i = parseInt(line, start, comma);
+		int j = parseInt(line, comma + 1, end);
+		boolean moved = i != foodI || j != foodJ;
+		foodI = i;
+		foodJ = j;
+		return moved;
+	}
+
+	/**
+	 * parses the direction letter at a position in a record.
+	 * 
+	 * @param line     - the record
+	 * @param position - position of the letter
+	 * @return the direction.
+	 * @throws IOException - if it is not a direction
+	 */
+	private Direction parseDirection(String line, int position) throws IOException {
+		Direction parsed = position < line.length() ? Direction.fromLabel(line.charAt(position)) : null;
+		if (parsed == null) {
+			throw new IOException("unexpected direction on line " + lineNumber + ": " + line);
+		}
+		return parsed;
+	}
+
+	/**
+	 * parses a non negative integer from part of a record.
+	 * 
+	 * @param line  - the record
+	 * @param start - first character of the number
+	 * @param end   - the character after the number
+	 * @return the number.
+	 * @throws IOException - if the characters are not a number
+	 */
+	private int parseInt(String line, int start, int end) throws IOException {
+		if (start >= end) {
+			throw new IOException("unexpected record on line " + lineNumber + ": " + line);
+		}
+		int value = 0;
+		for (int k = start; k < end; k++) {
+			char c = line.charAt(k);
+			if (c < '0' || c > '9') {
+				throw new IOException("unexpected number on line " + lineNumber + ": " + line);
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	/**
+	 * reads the next line of the log.
+	 * 
+	 * @return the line, or null at the end of the log.
+	 * @throws IOException - if the log can not be read
+	 */
+	private String readLine() throws IOException {
+		lineNumber++;
+		return in.readLine();
+	}
+
+	/**
+	 * wraps an index around the board.
+	 * 
+	 * @param index - the index
+	 * @param size  - the number of rows or columns
+	 * @return the index within 0 - size-1
+	 */
+	static private int wrap(int index, int size) {
+		index = index % size;
+		return index < 0 ? index + size : index;
+	}
+
+	@Override
+	public Direction getDirection() {
+		return direction;
+	}
+
+	@Override
+	public int getFoodI() {
+		return foodI;
+	}
+
+	@Override
+	public int getFoodJ() {
+		return foodJ;
+	}
+
+	@Override
+	public String[] getSettings() {
+		return settings;
+	}
+
+	@Override
+	public int getCols() {
+		return cols;
+	}
+
+	@Override
+	public int getRows() {
+		return rows;
+	}
+
+	@Override
+	public int getStartI() {
+		return startI;
+	}
+
+	@Override
+	public int getStartJ() {
+		return startJ;
+	}
+
+	@Override
+	public boolean hasSeed() {
+		return seeded;
+	}
+
+	@Override
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * test class for the allocation budget of a game tick - taking a move from the
+ * input, moving the snake, placing food and logging the tick, as
+ * {@link Game} does every tick. Allocating nothing leaves the garbage collector
+ * nothing to pause the game for.
+ * 
+ * @author jgcaf
+ *
+ */
+class TickAllocationTest {
+	static private final int size = 64;
+	static private final int warmupTicks = 100_000;
+	static private final int measuredTicks = 1_000_000;
+	// bytes a million ticks may allocate:
+	static private final long allocationBudget = 0;
+
+	private Board board;
+	private GameEngine engine;
+	private Snake snake;
+	private InputRing input;
+	private RunLogWriter log;
+	private int score = 0;
+
+	/**
+	 * checks that a million ticks of a growing snake allocate nothing.
+	 */
+	@Test
+	void tickDoesNotAllocate() throws Exception {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assertTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		Path file = Files.createTempFile("tick", "_recorded.txt");
+		board = new Board(size, size, 640, 640, 5L);
+		engine = board.getEngine();
+		Food food = new Food(board);
+		snake = HamiltonianCycle.startSnake(board, food, 1, false);
+		input = new InputRing();
+		log = new RunLogWriter(file.toString(), "2-1-0x000000ff-0xffffffff-0xff0000ff", engine.getSeed());
+
+		// let the jit compile the tick, then grow the snake past half the board, so
+		// its body never needs a bigger array again:
+		for (int k = 0; k < warmupTicks; k++) {
+			tick();
+		}
+		while (engine.getLength() <= size * size / 2) {
+			engine.step(HamiltonianCycle.next(engine.getHeadI(), engine.getHeadJ(), size, size));
+		}
+		int startScore = engine.getScore();
+
+		long thread = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(thread);
+		for (int k = 0; k < measuredTicks; k++) {
+			tick();
+		}
+		long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+		log.close();
+		Files.delete(file);
+		assertFalse(engine.isDead());
+		assertTrue(engine.getScore() > startScore);
+		assertTrue(allocated <= allocationBudget, allocated + " bytes allocated in " + measuredTicks + " ticks");
+	}
+
+	/**
+	 * one tick of the game, with the move pressed just before it.
+	 */
+	private void tick() {
+		long start = System.nanoTime();
+		input.offer(HamiltonianCycle.next(engine.getHeadI(), engine.getHeadJ(), size, size), start);
+		Metrics.global.recordInputDepth(input.size());
+		snake.update(input.poll());
+		log.appendRecord(score, engine);
+		score = board.getScore();
+		Metrics.global.recordTick(System.nanoTime() - start);
+	}
+}
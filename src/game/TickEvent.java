@@ -0,0 +1,63 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+
+/**
+ * a flight recorder event for one move of the snake, with the state of the
+ * game after it.
+ * 
+ * @author jgcaf
+ *
+ */
+@Name("game.Tick")
+@Label("Tick")
+@Category({ "Snake", "Game Loop" })
+@Description("One move of the snake")
+@StackTrace(false)
+public class TickEvent extends jdk.jfr.Event {
+	@Label("Columns")
+	public int cols;
+
+	@Label("Rows")
+	public int rows;
+
+	@Label("Body Length")
+	public int length;
+
+	@Label("Occupancy")
+	@Description("Share of the board covered by the snake")
+	@Percentage
+	public double occupancy;
+
+	@Label("Score")
+	public int score;
+
+	@Label("Dead")
+	public boolean dead;
+}
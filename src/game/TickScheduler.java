@@ -0,0 +1,195 @@
+/**
+ *  A simple snake game and gui created with javaFX.
+ *  
+    Copyright (C) 2020  Joe Caffarini jgcaffari1@gmail.com
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+    
+    I ask that you cite / reference my github repo if you use this code as a reference.  
+ */
+
+package game;
+
+/**
+ * decides how many simulation ticks are due on each frame from the frame's
+ * timestamp, so the game runs at the same number of ticks per second on any
+ * monitor refresh rate. Time is collected in an accumulator and spent one fixed
+ * tick at a time. If a frame comes very late, only a limited number of ticks
+ * are caught up and the rest are dropped and counted, rather than freezing the
+ * game to simulate all of them.
+ * 
+ * @author jgcaf
+ *
+ */
+public class TickScheduler {
+	static protected final int defaultMaxCatchUpTicks = 5;
+	// the refresh rate the frame lag presets were tuned on:
+	static protected final double referenceFrameRate = 60.0;
+
+	private long tickNanos;
+	private long accumulator;
+	private long lastTime = -1;
+	private int maxCatchUpTicks;
+
+	private long ticks = 0;
+	private long frames = 0;
+	private long droppedTicks = 0;
+	private long lateFrames = 0;
+
+	/**
+	 * initializes the scheduler with the default catch up limit.
+	 * 
+	 * @param ticksPerSecond - the simulation speed
+	 */
+	public TickScheduler(double ticksPerSecond) {
+		this(ticksPerSecond, defaultMaxCatchUpTicks);
+	}
+
+	/**
+	 * initializes the scheduler.
+	 * 
+	 * @param ticksPerSecond  - the simulation speed
+	 * @param maxCatchUpTicks - the most ticks run on one frame
+	 */
+	public TickScheduler(double ticksPerSecond, int maxCatchUpTicks) {
+		setTicksPerSecond(ticksPerSecond);
+		this.maxCatchUpTicks = maxCatchUpTicks;
+	}
+
+	/**
+	 * converts one of the frame lag presets into ticks per second, the speed it
+	 * had on a 60Hz monitor.
+	 * 
+	 * @param frameLag - the number of frames between moves
+	 * @return the equivalent number of ticks per second.
+	 */
+	static public double ticksPerSecond(int frameLag) {
+		return referenceFrameRate / frameLag;
+	}
+
+	/**
+	 * changes the simulation speed without losing the time already collected.
+	 * 
+	 * @param ticksPerSecond - the new simulation speed
+	 */
+	public void setTicksPerSecond(double ticksPerSecond) {
+		if (!(ticksPerSecond > 0)) {
+			throw new IllegalArgumentException("ticks per second must be positive: " + ticksPerSecond);
+		}
+		tickNanos = Math.max(1, Math.round(1_000_000_000.0 / ticksPerSecond));
+		accumulator = Math.min(accumulator, tickNanos);
+	}
+
+	/**
+	 * @return the simulation speed.
+	 */
+	public double getTicksPerSecond() {
+		return 1_000_000_000.0 / tickNanos;
+	}
+
+	/**
+	 * collects the time since the last frame and works out how many ticks are
+	 * due. The first frame after a reset runs one tick straight away.
+	 * 
+	 * @param nowNanos - the frame's timestamp, from System.nanoTime or the
+	 *                 AnimationTimer
+	 * @return the number of ticks to run on this frame.
+	 */
+	public int advance(long nowNanos) {
+		frames++;
+		if (lastTime < 0) {
+			lastTime = nowNanos;
+			ticks++;
+			return 1;
+		}
+		accumulator += Math.max(0, nowNanos - lastTime);
+		lastTime = nowNanos;
+		long due = accumulator / tickNanos;
+		accumulator -= due * tickNanos;
+		if (due > maxCatchUpTicks) {
+			droppedTicks += due - maxCatchUpTicks;
+			lateFrames++;
+			due = maxCatchUpTicks;
+		}
+		ticks += due;
+		return (int) due;
+	}
+
+	/**
+	 * sets how many ticks one frame may catch up before the rest are dropped.
+	 * 
+	 * @param maxCatchUpTicks - the most ticks run in a single frame
+	 */
+	public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+		this.maxCatchUpTicks = maxCatchUpTicks;
+	}
+
+	/**
+	 * forgets the time collected so far - used after the game was paused, so the
+	 * pause is not caught up.
+	 */
+	public void reset() {
+		lastTime = -1;
+		accumulator = 0;
+	}
+
+	/**
+	 * @return the length of one tick in ns.
+	 */
+	public long getTickNanos() {
+		return tickNanos;
+	}
+
+	/**
+	 * gets how long until the next tick is due, counted from the last call to
+	 * advance.
+	 * 
+	 * @return the wait in nanoseconds, 0 if a tick is due already.
+	 */
+	public long getNanosToNextTick() {
+		if (lastTime < 0) {
+			return 0;
+		}
+		return Math.max(0, tickNanos - accumulator);
+	}
+
+	/**
+	 * @return the number of ticks run.
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return the number of frames seen.
+	 */
+	public long getFrames() {
+		return frames;
+	}
+
+	/**
+	 * @return the number of ticks skipped because frames came too late.
+	 */
+	public long getDroppedTicks() {
+		return droppedTicks;
+	}
+
+	/**
+	 * @return the number of frames that had more ticks due than the catch up
+	 *         limit.
+	 */
+	public long getLateFrames() {
+		return lateFrames;
+	}
+}
@@ -6,5 +6,8 @@ module SnakeFX {
   requires org.junit.jupiter.api;
   requires java.desktop;
   requires java.logging;
+  requires java.management;
+  requires jdk.jfr;
+  requires jdk.management;
 
 }
\ No newline at end of file